@@ -2,16 +2,19 @@ package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -19,46 +22,67 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                         ClientHttpConnector connector) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                        .baseUrl(serverUrl + API_PREFIX)
+                        .clientConnector(connector)
                         .build()
         );
     }
 
-    public ResponseEntity<Object> getUserBookings(Long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getUserBookings(Long userId, BookingState state, Integer from, Integer size,
+                                                        boolean count) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "count", count
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&count={count}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getOwnerBookings(Long userId, BookingState state, Integer from, Integer size,
+                                                         boolean count) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "count", count
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&from={from}&size={size}&count={count}", userId, parameters);
     }
 
+    public Mono<ResponseEntity<byte[]>> getUserBookingsAfter(Long userId, BookingState state, LocalDateTime afterStart,
+                                                             Long afterId, Integer size, boolean count) {
+        return get("?state={state}&afterStart={afterStart}&afterId={afterId}&size={size}&count={count}", userId,
+                cursorParameters(state, afterStart, afterId, size, count));
+    }
+
+    public Mono<ResponseEntity<byte[]>> getOwnerBookingsAfter(Long userId, BookingState state, LocalDateTime afterStart,
+                                                              Long afterId, Integer size, boolean count) {
+        return get("/owner?state={state}&afterStart={afterStart}&afterId={afterId}&size={size}&count={count}",
+                userId, cursorParameters(state, afterStart, afterId, size, count));
+    }
 
-    public ResponseEntity<Object> addBooking(Long userId, BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> addBookings(Long userId, List<BookItemRequestDto> requestDtos,
+                                                    boolean atomic) {
+        return post("/batch?atomic={atomic}", userId, Map.of("atomic", atomic), requestDtos);
+    }
+
+    public Mono<ResponseEntity<byte[]>> addBooking(Long userId, BookItemRequestDto requestDto) {
         Map<String, Object> parameters = Map.of(
                 "${headers.user.id.name}", userId
         );
         return post("", userId, parameters, requestDto);
     }
 
-    public ResponseEntity<Object> getBookingById(Long userId, Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBookingById(Long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> patchBooking(Long bookingId, Long userId, Boolean approved) {
+    public Mono<ResponseEntity<byte[]>> patchBooking(Long bookingId, Long userId, Boolean approved) {
         Map<String, Object> parameters = new HashMap<>();
         if (approved != null) {
             parameters.put("${headers.user.id.name}", userId);
@@ -66,7 +90,22 @@ public class BookingClient extends BaseClient {
         return patch("/" + bookingId + "?approved=" + approved, userId, parameters);
     }
 
-    public ResponseEntity<Object> deleteBookingById(Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> patchBookings(List<Long> bookingIds, Long userId, Boolean approved) {
+        return patch("/batch?approved={approved}", userId, Map.of("approved", approved), bookingIds);
+    }
+
+    public Mono<ResponseEntity<byte[]>> deleteBookingById(Long bookingId) {
         return delete("/" + bookingId);
     }
+
+    private static Map<String, Object> cursorParameters(BookingState state, LocalDateTime afterStart, Long afterId,
+                                                        Integer size, boolean count) {
+        return Map.of(
+                "state", state.name(),
+                "afterStart", afterStart.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                "afterId", afterId,
+                "size", size,
+                "count", count
+        );
+    }
 }
@@ -2,17 +2,28 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.exceptions.BookingParameterException;
 import ru.practicum.shareit.exceptions.BookingUnsupportedStateException;
+import ru.practicum.shareit.exceptions.PaginationParameterException;
 
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
 import javax.validation.Valid;
+import javax.validation.Validator;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -21,57 +32,128 @@ import javax.validation.constraints.PositiveOrZero;
 @Validated
 public class BookingController {
     private final BookingClient bookingClient;
+    private final Validator validator;
 
     @GetMapping
-    public ResponseEntity<Object> getBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
-                                              @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                    @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                    @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "afterStart", required = false)
+                                                    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                    LocalDateTime afterStart,
+                                                    @Positive @RequestParam(name = "afterId", required = false) Long afterId,
+                                                    @RequestParam(name = "count", defaultValue = "false") boolean count) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new BookingUnsupportedStateException("Unknown state: " + stateParam));
+        if (afterStart != null || afterId != null) {
+            checkCursor(afterStart, afterId);
+            log.info("Get booking with state {}, userId={}, afterStart={}, afterId={}, size={}", stateParam, userId,
+                    afterStart, afterId, size);
+            return bookingClient.getUserBookingsAfter(userId, state, afterStart, afterId, size, count);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getUserBookings(userId, state, from, size);
+        return bookingClient.getUserBookings(userId, state, from, size, count);
     }
 
     @GetMapping("/owner")
-    public ResponseEntity<Object> getOwnerBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
-                                                   @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
-                                                   @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
-                                                   Integer from,
-                                                   @Positive @RequestParam(name = "size", defaultValue = "10")
-                                                   Integer size) {
+    public Mono<ResponseEntity<byte[]>> getOwnerBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                         @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+                                                         @PositiveOrZero @RequestParam(name = "from", defaultValue = "0")
+                                                         Integer from,
+                                                         @Positive @RequestParam(name = "size", defaultValue = "10")
+                                                         Integer size,
+                                                         @RequestParam(name = "afterStart", required = false)
+                                                         @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                         LocalDateTime afterStart,
+                                                         @Positive @RequestParam(name = "afterId", required = false)
+                                                         Long afterId,
+                                                         @RequestParam(name = "count", defaultValue = "false")
+                                                         boolean count) {
         BookingState state = BookingState.from(stateParam.toUpperCase())
                 .orElseThrow(() -> new BookingUnsupportedStateException("Unknown state: " + stateParam));
+        if (afterStart != null || afterId != null) {
+            checkCursor(afterStart, afterId);
+            log.info("Get owner booking with state {}, userId={}, afterStart={}, afterId={}, size={}", stateParam,
+                    userId, afterStart, afterId, size);
+            return bookingClient.getOwnerBookingsAfter(userId, state, afterStart, afterId, size, count);
+        }
         log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getOwnerBookings(userId, state, from, size);
+        return bookingClient.getOwnerBookings(userId, state, from, size, count);
     }
 
     @PostMapping
-    public ResponseEntity<Object> addBooking(@RequestHeader(value = "${headers.user.id.name}") Long userId,
-                                             @RequestBody @Valid BookItemRequestDto requestDto) {
+    public Mono<ResponseEntity<byte[]>> addBooking(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                   @RequestBody @Valid BookItemRequestDto requestDto) {
         log.info("Creating booking {}, userId={}", requestDto, userId);
         return bookingClient.addBooking(userId, requestDto);
     }
 
+    @PostMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> addBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                    @RequestParam(name = "atomic", defaultValue = "true")
+                                                    boolean atomic,
+                                                    @RequestBody List<BookItemRequestDto> requestDtos) {
+        if (requestDtos.isEmpty()) {
+            throw new BookingParameterException("Пакет бронирований пуст");
+        }
+        if (atomic) {
+            validateAll(requestDtos);
+        }
+        log.info("Creating {} bookings, userId={}, atomic={}", requestDtos.size(), userId, atomic);
+        return bookingClient.addBookings(userId, requestDtos, atomic);
+    }
+
     @GetMapping("/{bookingId}")
-    public ResponseEntity<Object> getBookingById(@RequestHeader(value = "${headers.user.id.name}") Long userId,
-                                                 @PathVariable Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> getBookingById(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                       @PathVariable Long bookingId) {
         log.info("Get booking {}, userId={}", bookingId, userId);
         return bookingClient.getBookingById(userId, bookingId);
     }
 
+    @PatchMapping("/batch")
+    public Mono<ResponseEntity<byte[]>> patchBookings(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                      @RequestParam(name = "approved") Boolean approved,
+                                                      @RequestBody List<Long> bookingIds) {
+        if (bookingIds.isEmpty()) {
+            throw new BookingParameterException("Пакет бронирований пуст");
+        }
+        log.info("Update {} bookings, userId={}, approved={}", bookingIds.size(), userId, approved);
+        return bookingClient.patchBookings(bookingIds, userId, approved);
+    }
+
     @PatchMapping("/{bookingId}")
-    public ResponseEntity<Object> patchBooking(@RequestHeader(value = "${headers.user.id.name}") Long userId,
-                                               @PathVariable Long bookingId,
-                                               @RequestParam(name = "approved",
-                                                       required = false) Boolean approved) {
+    public Mono<ResponseEntity<byte[]>> patchBooking(@RequestHeader(value = "${headers.user.id.name}") Long userId,
+                                                     @PathVariable Long bookingId,
+                                                     @RequestParam(name = "approved",
+                                                             required = false) Boolean approved) {
         log.info("Update booking {}, userId={}, approved={}", bookingId, userId, approved);
         return bookingClient.patchBooking(bookingId, userId, approved);
     }
 
     @DeleteMapping("/{bookingId}")
-    public ResponseEntity<Object> deleteBooking(@RequestHeader Long bookingId) {
+    public Mono<ResponseEntity<byte[]>> deleteBooking(@RequestHeader Long bookingId) {
         log.info("Delete booking {}, bookingId={}", bookingId);
         return bookingClient.deleteBookingById(bookingId);
     }
+
+    private static void checkCursor(LocalDateTime afterStart, Long afterId) {
+        if (afterStart == null || afterId == null) {
+            throw new PaginationParameterException("Неверные параметры пагинации.");
+        }
+    }
+
+    /**
+     * An atomic batch fails as a whole, so any invalid entry rejects it here. A non-atomic batch goes
+     * to the server, which reports invalid entries one by one; the batch size limit is the server's too.
+     */
+    private void validateAll(List<BookItemRequestDto> requestDtos) {
+        Set<ConstraintViolation<BookItemRequestDto>> violations = requestDtos.stream()
+                .flatMap(requestDto -> validator.validate(requestDto).stream())
+                .collect(Collectors.toSet());
+
+        if (!violations.isEmpty()) {
+            throw new ConstraintViolationException(violations);
+        }
+    }
 }
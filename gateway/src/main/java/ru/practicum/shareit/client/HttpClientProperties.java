@@ -0,0 +1,33 @@
+package ru.practicum.shareit.client;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings of the connection pool shared by all {@link BaseClient} subclasses.
+ */
+@Data
+@ConfigurationProperties(prefix = "shareit-server.http")
+public class HttpClientProperties {
+    /**
+     * The gateway talks to a single server, so the whole pool goes to one host.
+     */
+    private int maxConnections = 200;
+    /**
+     * Requests allowed to wait for a free connection; beyond that they fail at once.
+     */
+    private int maxPendingAcquires = 1000;
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    /**
+     * How long a request waits for a free pooled connection.
+     */
+    private Duration connectionRequestTimeout = Duration.ofSeconds(1);
+    /**
+     * Pooled connections idle for longer than this are closed; stays below Tomcat's default
+     * keep-alive of 20 seconds so the gateway never reuses a connection the server has already closed.
+     */
+    private Duration idleTimeout = Duration.ofSeconds(15);
+}
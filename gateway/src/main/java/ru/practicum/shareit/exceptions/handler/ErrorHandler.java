@@ -9,6 +9,8 @@ import ru.practicum.shareit.booking.BookingController;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.user.UserClientController;
 
+import javax.validation.ConstraintViolationException;
+
 @RestControllerAdvice(basePackageClasses = {UserClientController.class, BookingController.class})
 public class ErrorHandler {
 
@@ -86,4 +88,10 @@ public class ErrorHandler {
     public ErrorResponse handleBookingUnsupportedStateException(BookingUnsupportedStateException ex) {
         return new ErrorResponse(ex.getMessage());
     }
+
+    @ExceptionHandler(ConstraintViolationException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ErrorResponse handleConstraintViolationException(ConstraintViolationException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
 }
@@ -2,15 +2,17 @@ package ru.practicum.shareit.item;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.Map;
 
 @Service
@@ -19,27 +21,47 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                      ClientHttpConnector connector) {
         super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(connector)
                 .build());
     }
 
-    public ResponseEntity<Object> getAllItems(Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllItems(Long userId, Integer from, Integer size, boolean count) {
+        Map<String, Object> parameters = Map.of(
+                "from", from,
+                "size", size,
+                "count", count
+        );
+
+        return get("?from={from}&size={size}&count={count}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> getDashboard(Long userId, Integer from, Integer size) {
         Map<String, Object> parameters = Map.of(
                 "from", from,
                 "size", size
         );
 
-        return get("?from={from}&size={size}", userId, parameters);
+        return get("/dashboard?from={from}&size={size}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getItemById(Long userId, Long itemId) {
+    public Mono<ResponseEntity<byte[]>> getItemById(Long userId, Long itemId) {
         return get("/" + itemId, userId);
     }
 
-    public ResponseEntity<Object> addItem(Long userId, ItemDto itemDto, Long requestId) {
+    public Mono<ResponseEntity<byte[]>> getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        Map<String, Object> parameters = Map.of(
+                "from", from.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                "to", to.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME)
+        );
+
+        return get("/" + itemId + "/availability?from={from}&to={to}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> addItem(Long userId, ItemDto itemDto, Long requestId) {
         if (requestId != null) {
             Map<String, Object> parameters = Map.of(
                     "requestId", requestId
@@ -50,25 +72,43 @@ public class ItemClient extends BaseClient {
         return post("", userId, itemDto);
     }
 
-    public ResponseEntity<Object> patchItem(Long itemId, Long userId, ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> patchItem(Long itemId, Long userId, ItemDto itemDto) {
         return patch("/" + itemId, userId, itemDto);
     }
 
-    public ResponseEntity<Object> deleteItem(Long itemId) {
+    public Mono<ResponseEntity<byte[]>> deleteItem(Long itemId) {
         return delete("/" + itemId);
     }
 
-    public ResponseEntity<Object> searchItemsByText(String text, Long userId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> searchItemsByText(String text, Long userId, Integer from, Integer size,
+                                                          boolean count) {
         Map<String, Object> parameters = Map.of(
                 "text", text,
                 "from", from,
-                "size", size
+                "size", size,
+                "count", count
+        );
+
+        return get("/search?text={text}&from={from}&size={size}&count={count}", userId, parameters);
+    }
+
+    public Mono<ResponseEntity<byte[]>> searchFreeItemsByText(String text, Long userId, LocalDateTime start,
+                                                              LocalDateTime end, Integer from, Integer size,
+                                                              boolean count) {
+        Map<String, Object> parameters = Map.of(
+                "text", text,
+                "start", start.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                "end", end.format(DateTimeFormatter.ISO_LOCAL_DATE_TIME),
+                "from", from,
+                "size", size,
+                "count", count
         );
 
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+        return get("/search?text={text}&start={start}&end={end}&from={from}&size={size}&count={count}", userId,
+                parameters);
     }
 
-    public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
+    public Mono<ResponseEntity<byte[]>> addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         return post("/" + itemId + "/comment", userId, commentRequestDto);
     }
 }
@@ -2,16 +2,20 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.exceptions.ItemParameterException;
 import ru.practicum.shareit.item.dto.CommentRequestDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 
 @Controller
 @RequestMapping(path = "/items")
@@ -22,64 +26,109 @@ public class ItemClientController {
     private final ItemClient itemClient;
 
     @GetMapping
-    public ResponseEntity<Object> getAllItems(@RequestHeader(name = "${headers.user.id.name}") Long userId,
-                                              @PositiveOrZero @RequestParam(name = "from", required = false,
-                                                      defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", required = false,
-                                                      defaultValue = "10") Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllItems(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                    @PositiveOrZero @RequestParam(name = "from", required = false,
+                                                            defaultValue = "0") Integer from,
+                                                    @Positive @RequestParam(name = "size", required = false,
+                                                            defaultValue = "10") Integer size,
+                                                    @RequestParam(name = "count", defaultValue = "false") boolean count) {
         log.info("Get all items, userId={}, from={}, size={}", userId, from, size);
-        return itemClient.getAllItems(userId, from, size);
+        return itemClient.getAllItems(userId, from, size, count);
+    }
+
+    @GetMapping("/dashboard")
+    public Mono<ResponseEntity<byte[]>> getDashboard(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                     @PositiveOrZero @RequestParam(name = "from", required = false,
+                                                             defaultValue = "0") Integer from,
+                                                     @Positive @RequestParam(name = "size", required = false,
+                                                             defaultValue = "10") Integer size) {
+        log.info("Get items dashboard, userId={}, from={}, size={}", userId, from, size);
+        return itemClient.getDashboard(userId, from, size);
     }
 
     @GetMapping("/{itemId}")
-    public ResponseEntity<Object> getItemById(@RequestHeader(name = "${headers.user.id.name}") Long userId,
-                                              @PathVariable Long itemId) {
+    public Mono<ResponseEntity<byte[]>> getItemById(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                    @PathVariable Long itemId) {
         log.info("Get item by id, userId={}, itemId={}", userId, itemId);
         return itemClient.getItemById(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public Mono<ResponseEntity<byte[]>> getAvailability(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                        @PathVariable Long itemId,
+                                                        @RequestParam(name = "from")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime from,
+                                                        @RequestParam(name = "to")
+                                                        @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                        LocalDateTime to) {
+        checkPeriod(from, to);
+        log.info("Get item availability, userId={}, itemId={}, from={}, to={}", userId, itemId, from, to);
+        return itemClient.getAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping
-    public ResponseEntity<Object> addItem(@RequestHeader(name = "${headers.user.id.name}") Long userId,
-                                          @RequestParam(name = "requestId", required = false) Long requestId,
-                                          @RequestBody @Valid ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> addItem(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                @RequestParam(name = "requestId", required = false) Long requestId,
+                                                @RequestBody @Valid ItemDto itemDto) {
         log.info("Add item, userId={}, requestId={}, itemDto={}", userId, requestId, itemDto);
         return itemClient.addItem(userId, itemDto, requestId);
     }
 
     @PatchMapping("/{itemId}")
-    public ResponseEntity<Object> patchItem(@RequestHeader(name = "${headers.user.id.name}") Long userId,
-                                            @PathVariable Long itemId,
-                                            @RequestBody ItemDto itemDto) {
+    public Mono<ResponseEntity<byte[]>> patchItem(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                  @PathVariable Long itemId,
+                                                  @RequestBody ItemDto itemDto) {
 
         log.info("Update item, userId={}, itemId={}, itemDto={}", userId, itemId, itemDto);
         return itemClient.patchItem(itemId, userId, itemDto);
     }
 
     @DeleteMapping("/{itemId}")
-    public ResponseEntity<Object> deleteItem(@PathVariable Long itemId) {
+    public Mono<ResponseEntity<byte[]>> deleteItem(@PathVariable Long itemId) {
         log.info("Delete item, itemId={}", itemId);
         return itemClient.deleteItem(itemId);
     }
 
 
     @GetMapping("/search")
-    public ResponseEntity<Object> searchItemsByText(@RequestParam String text,
-                                                    @RequestHeader(name = "${headers.user.id.name}") Long userid,
-                                                    @PositiveOrZero @RequestParam(name = "from",
-                                                            required = false, defaultValue = "0")
-                                                    Integer from,
-                                                    @Positive @RequestParam(name = "size",
-                                                            required = false, defaultValue = "10")
-                                                    Integer size) {
+    public Mono<ResponseEntity<byte[]>> searchItemsByText(@RequestParam String text,
+                                                          @RequestHeader(name = "${headers.user.id.name}") Long userid,
+                                                          @PositiveOrZero @RequestParam(name = "from",
+                                                                  required = false, defaultValue = "0")
+                                                          Integer from,
+                                                          @Positive @RequestParam(name = "size",
+                                                                  required = false, defaultValue = "10")
+                                                          Integer size,
+                                                          @RequestParam(name = "count", defaultValue = "false")
+                                                          boolean count,
+                                                          @RequestParam(name = "start", required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime start,
+                                                          @RequestParam(name = "end", required = false)
+                                                          @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                          LocalDateTime end) {
+        if (start != null || end != null) {
+            checkPeriod(start, end);
+            log.info("Search free items by text, text={}, start={}, end={}, from={}, size={}", text, start, end,
+                    from, size);
+            return itemClient.searchFreeItemsByText(text, userid, start, end, from, size, count);
+        }
         log.info("Search items by text, text={}, from={}, size={}", text, from, size);
-        return itemClient.searchItemsByText(text, userid, from, size);
+        return itemClient.searchItemsByText(text, userid, from, size, count);
     }
 
     @PostMapping("/{itemId}/comment")
-    public ResponseEntity<Object> addComment(@RequestHeader(name = "${headers.user.id.name}") Long userId,
-                                             @PathVariable Long itemId,
-                                             @RequestBody @Valid CommentRequestDto commentRequestDto) {
+    public Mono<ResponseEntity<byte[]>> addComment(@RequestHeader(name = "${headers.user.id.name}") Long userId,
+                                                   @PathVariable Long itemId,
+                                                   @RequestBody @Valid CommentRequestDto commentRequestDto) {
         log.info("Add comment, userId={}, itemId={}, commentRequestDto={}", userId, itemId, commentRequestDto);
         return itemClient.addComment(userId, itemId, commentRequestDto);
     }
+
+    private static void checkPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ItemParameterException("Неверный период");
+        }
+    }
 }
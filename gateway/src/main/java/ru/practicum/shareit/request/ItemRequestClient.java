@@ -2,11 +2,11 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.reactive.ClientHttpConnector;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.client.BaseClient;
 import ru.practicum.shareit.request.dto.ItemRequestPost;
 
@@ -17,25 +17,26 @@ public class ItemRequestClient extends BaseClient {
     private static final String API_PREFIX = "/requests";
 
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                             ClientHttpConnector connector) {
         super(builder
-                .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                .requestFactory(HttpComponentsClientHttpRequestFactory::new)
+                .baseUrl(serverUrl + API_PREFIX)
+                .clientConnector(connector)
                 .build());
     }
 
 
-    public ResponseEntity<Object> getItemRequests(Long requesterId) {
+    public Mono<ResponseEntity<byte[]>> getItemRequests(Long requesterId) {
         return get("", requesterId);
     }
 
 
-    public ResponseEntity<Object> getItemRequestById(Long requesterId, Long requestId) {
+    public Mono<ResponseEntity<byte[]>> getItemRequestById(Long requesterId, Long requestId) {
         return get("/" + requestId, requesterId);
     }
 
 
-    public ResponseEntity<Object> getAllItemRequests(Long requesterId, Integer from, Integer size) {
+    public Mono<ResponseEntity<byte[]>> getAllItemRequests(Long requesterId, Integer from, Integer size) {
 
         Map<String, Object> parameters = Map.of(
                 "from", from,
@@ -45,7 +46,7 @@ public class ItemRequestClient extends BaseClient {
         return get("/all?from={from}&size={size}", requesterId, parameters);
     }
 
-    public ResponseEntity<Object> addItemRequest(Long requesterId, ItemRequestPost itemRequestPost) {
+    public Mono<ResponseEntity<byte[]>> addItemRequest(Long requesterId, ItemRequestPost itemRequestPost) {
         return post("", requesterId, itemRequestPost);
     }
 }
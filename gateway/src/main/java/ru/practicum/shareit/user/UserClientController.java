@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
@@ -21,32 +22,32 @@ public class UserClientController {
     private final UserClient userClient;
 
     @GetMapping
-    public ResponseEntity<Object> getUsers() {
+    public Mono<ResponseEntity<byte[]>> getUsers() {
         log.info("Get all users");
         return userClient.getUsers();
     }
 
     @GetMapping("/{userId}")
-    public ResponseEntity<Object> getUser(@PathVariable @PositiveOrZero @NotNull Long userId) {
+    public Mono<ResponseEntity<byte[]>> getUser(@PathVariable @PositiveOrZero @NotNull Long userId) {
         log.info("Get user {}", userId);
         return userClient.getUser(userId);
     }
 
     @PostMapping
-    public ResponseEntity<Object> createUser(@RequestBody @Valid UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> createUser(@RequestBody @Valid UserDto userDto) {
         log.info("Create user {}", userDto);
         return userClient.createUser(userDto);
     }
 
     @PatchMapping("/{userId}")
-    public ResponseEntity<Object> updateUser(@PathVariable @PositiveOrZero @NotNull Long userId,
-                                             @RequestBody UserDto userDto) {
+    public Mono<ResponseEntity<byte[]>> updateUser(@PathVariable @PositiveOrZero @NotNull Long userId,
+                                                   @RequestBody UserDto userDto) {
         log.info("Patch user {}", userId);
         return userClient.updateUser(userId, userDto);
     }
 
     @DeleteMapping("/{userId}")
-    public ResponseEntity<Object> deleteUser(@PathVariable @PositiveOrZero @NotNull Long userId) {
+    public Mono<ResponseEntity<byte[]>> deleteUser(@PathVariable @PositiveOrZero @NotNull Long userId) {
         log.info("Delete user {}", userId);
         return userClient.deleteUser(userId);
     }
@@ -7,16 +7,26 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
 import ru.practicum.shareit.booking.dto.BookItemRequestDto;
+import ru.practicum.shareit.booking.dto.BookingState;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {BookingController.class})
@@ -35,16 +45,110 @@ class BookingControllerTest {
     @Test
     @SneakyThrows
     void getBookings() {
-        when(bookingClient.getUserBookings(anyLong(), any(), anyInt(), anyInt()))
-                .thenReturn(ResponseEntity.accepted().body(List.of()));
+        when(bookingClient.getUserBookings(anyLong(), any(), anyInt(), anyInt(), anyBoolean()))
+                .thenReturn(Mono.just(ResponseEntity.accepted().body(new byte[0])));
 
-        mockMvc.perform(get("/bookings")
+        MvcResult result = mockMvc.perform(get("/bookings")
                         .header(HEADER_USER_ID, 1L)
                         .param("state", "ALL")
                         .param("from", "0")
                         .param("size", "10"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().is2xxSuccessful())
+                .andDo(print());
+    }
+
+    @Test
+    @SneakyThrows
+    void getBookings_whenCursorGiven_thenKeysetClientCall() {
+        when(bookingClient.getUserBookingsAfter(eq(1L), eq(BookingState.ALL), eq(LocalDateTime.of(2023, 1, 1, 10, 0)),
+                eq(5L), eq(10), eq(false)))
+                .thenReturn(Mono.just(ResponseEntity.ok().body(new byte[0])));
+
+        MvcResult result = mockMvc.perform(get("/bookings")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("afterStart", "2023-01-01T10:00:00")
+                        .param("afterId", "5"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(print());
+        verify(bookingClient, never()).getUserBookings(anyLong(), any(), anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnerBookings_whenCursorIncomplete_thenBadRequest() {
+        mockMvc.perform(get("/bookings/owner")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("afterStart", "2023-01-01T10:00:00"))
+                .andExpect(status().isBadRequest())
                 .andDo(print())
                 .andReturn();
+        verify(bookingClient, never()).getOwnerBookingsAfter(anyLong(), any(), any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnerBookings_whenCountRequested_thenCountForwarded() {
+        when(bookingClient.getOwnerBookings(eq(1L), eq(BookingState.ALL), eq(0), eq(10), eq(true)))
+                .thenReturn(Mono.just(ResponseEntity.ok().body(new byte[0])));
+
+        MvcResult result = mockMvc.perform(get("/bookings/owner")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("count", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(print());
+        verify(bookingClient).getOwnerBookings(1L, BookingState.ALL, 0, 10, true);
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_whenEntryStartsInPast_thenBadRequest() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<BookItemRequestDto> requestDtos = List.of(
+                new BookItemRequestDto(1L, now.plusDays(1), now.plusDays(2)),
+                new BookItemRequestDto(2L, now.minusDays(1), now.plusDays(2)));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(HEADER_USER_ID, 1L)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(status().isBadRequest())
+                .andDo(print());
+        verify(bookingClient, never()).addBookings(anyLong(), any(), anyBoolean());
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_whenNotAtomicAndEntryStartsInPast_thenForwardedToServer() {
+        LocalDateTime now = LocalDateTime.now().withNano(0);
+        List<BookItemRequestDto> requestDtos = List.of(
+                new BookItemRequestDto(1L, now.plusDays(1), now.plusDays(2)),
+                new BookItemRequestDto(2L, now.minusDays(1), now.plusDays(2)));
+        when(bookingClient.addBookings(anyLong(), any(), anyBoolean()))
+                .thenReturn(Mono.just(ResponseEntity.ok().body(new byte[0])));
+
+        MvcResult result = mockMvc.perform(post("/bookings/batch")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("atomic", "false")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDtos)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andDo(print());
+        verify(bookingClient).addBookings(eq(1L), any(), eq(false));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,113 @@
+package ru.practicum.shareit.client;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gateway cost of one server response: relaying raw bytes through {@link BaseClient} against
+ * decoding the body to {@code Object} and encoding it again, as the RestTemplate client did.
+ * Not run by the build; start {@link #main} from the IDE or with the test classpath,
+ * add {@code -prof gc} through JMH options to see allocations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class BaseClientBenchmark {
+    @Param({"1", "20", "100"})
+    private int items;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private String body;
+    private RelayClient relayClient;
+    private WebClient decodingClient;
+
+    @Setup
+    public void setUp() throws Exception {
+        List<Map<String, Object>> page = new ArrayList<>();
+        for (long i = 1; i <= items; i++) {
+            Map<String, Object> owner = new LinkedHashMap<>();
+            owner.put("id", i);
+            owner.put("name", "Владелец " + i);
+            owner.put("email", "owner" + i + "@mail.ru");
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", i);
+            item.put("name", "Дрель " + i);
+            item.put("description", "Простая дрель для ремонта, почти новая");
+            item.put("available", true);
+            item.put("owner", owner);
+            item.put("requestId", null);
+            page.add(item);
+        }
+        body = objectMapper.writeValueAsString(page);
+
+        WebClient web = WebClient.builder()
+                .baseUrl("http://server/items")
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build()))
+                .build();
+        relayClient = new RelayClient(web);
+        decodingClient = web;
+    }
+
+    @Benchmark
+    public ResponseEntity<byte[]> relayBytes() {
+        return relayClient.find();
+    }
+
+    @Benchmark
+    public byte[] decodeAndEncode() throws Exception {
+        Object response = decodingClient.get()
+                .retrieve()
+                .bodyToMono(Object.class)
+                .block();
+
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(BaseClientBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    private static class RelayClient extends BaseClient {
+        RelayClient(WebClient web) {
+            super(web);
+        }
+
+        ResponseEntity<byte[]> find() {
+            return get("", 1L, null).block();
+        }
+    }
+}
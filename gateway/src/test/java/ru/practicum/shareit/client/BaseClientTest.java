@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class BaseClientTest {
+    private final AtomicReference<ClientRequest> sent = new AtomicReference<>();
+
+    @Test
+    public void testRequestCarriesUserIdAndParameters() {
+        TestClient client = client(ClientResponse.create(HttpStatus.OK).build());
+
+        client.find(7L).block();
+
+        assertEquals("http://server/things?from=5", sent.get().url().toString());
+        assertEquals("7", sent.get().headers().getFirst("X-Sharer-User-Id"));
+        assertEquals(MediaType.APPLICATION_JSON, sent.get().headers().getContentType());
+    }
+
+    @Test
+    public void testErrorResponseIsRelayedAsIs() {
+        String body = "{\"error\":\"Пользователь не найден.\"}";
+        TestClient client = client(ClientResponse.create(HttpStatus.NOT_FOUND)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .header(HttpHeaders.TRANSFER_ENCODING, "chunked")
+                .body(body)
+                .build());
+
+        ResponseEntity<byte[]> response = client.find(1L).block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertFalse(response.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+        assertEquals(body, new String(response.getBody(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testEmptyResponseHasNoBody() {
+        TestClient client = client(ClientResponse.create(HttpStatus.OK).build());
+
+        ResponseEntity<byte[]> response = client.remove().block();
+
+        assertNotNull(response);
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    private TestClient client(ClientResponse response) {
+        return new TestClient(WebClient.builder()
+                .baseUrl("http://server/things")
+                .exchangeFunction(request -> {
+                    sent.set(request);
+                    return Mono.just(response);
+                })
+                .build());
+    }
+
+    private static class TestClient extends BaseClient {
+        TestClient(WebClient web) {
+            super(web);
+        }
+
+        Mono<ResponseEntity<byte[]>> find(long userId) {
+            return get("?from={from}", userId, Map.of("from", 5));
+        }
+
+        Mono<ResponseEntity<byte[]>> remove() {
+            return delete("/1");
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.Test;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class HttpClientConfigTest {
+    private final HttpClientConfig config = new HttpClientConfig();
+
+    @Test
+    public void testConnectionProviderUsesProperties() {
+        HttpClientProperties properties = new HttpClientProperties();
+        properties.setMaxConnections(50);
+        properties.setIdleTimeout(Duration.ofSeconds(5));
+
+        ConnectionProvider connectionProvider = config.shareItServerConnectionProvider(properties);
+
+        assertEquals(HttpClientConfig.POOL_NAME, connectionProvider.name());
+        assertEquals(50, connectionProvider.maxConnections());
+        connectionProvider.dispose();
+    }
+
+    @Test
+    public void testConnectorIsBuiltOnSharedPool() {
+        HttpClientProperties properties = new HttpClientProperties();
+        ConnectionProvider connectionProvider = config.shareItServerConnectionProvider(properties);
+
+        assertNotNull(config.shareItServerConnector(connectionProvider, properties));
+        connectionProvider.dispose();
+    }
+}
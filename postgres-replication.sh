@@ -0,0 +1,15 @@
+#!/bin/sh
+set -e
+
+# Streaming replication is set up only when a password is given, which the "replica" compose profile
+# requires; the replication role is accepted from the replica container's address only.
+if [ -z "$REPLICATION_PASSWORD" ] || [ -z "$REPLICA_ADDRESS" ]; then
+    exit 0
+fi
+
+psql -v ON_ERROR_STOP=1 -v password="$REPLICATION_PASSWORD" \
+    --username "$POSTGRES_USER" --dbname "$POSTGRES_DB" <<-'EOSQL'
+    CREATE ROLE replicator WITH REPLICATION LOGIN PASSWORD :'password';
+EOSQL
+
+echo "host replication replicator $REPLICA_ADDRESS/32 md5" >> "$PGDATA/pg_hba.conf"
@@ -0,0 +1,88 @@
+package ru.practicum.shareit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import ru.practicum.shareit.datasource.ReplicaRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Routes read-only transactions to the streaming replicas listed in
+ * {@code shareit.datasource.replica.urls}; the primary stays {@code spring.datasource.*}.
+ * Replicas use the primary's credentials. The pools are not beans of their own, so this
+ * configuration reports them to the meter registry and closes them on shutdown.
+ */
+@Configuration
+@ConditionalOnExpression("!environment.getProperty('shareit.datasource.replica.urls', '').isBlank()")
+public class ReplicaRoutingConfig implements DisposableBean {
+    private final List<HikariDataSource> pools = new ArrayList<>();
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties properties,
+                                 @Value("${shareit.datasource.replica.urls}") List<String> replicaUrls,
+                                 @Value("${shareit.datasource.replica.read-your-writes:PT5S}") Duration readYourWrites,
+                                 @Value("${headers.user.id.name:X-Sharer-User-Id}") String userIdHeader) {
+        DataSource primary = pool(properties, properties.determineUrl(), ReplicaRoutingDataSource.PRIMARY);
+        Map<Object, Object> targets = new HashMap<>();
+        List<String> replicaKeys = new ArrayList<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primary);
+
+        for (int i = 0; i < replicaUrls.size(); i++) {
+            String key = "replica-" + i;
+            targets.put(key, pool(properties, replicaUrls.get(i).trim(), key));
+            replicaKeys.add(key);
+        }
+
+        ReplicaRoutingDataSource routing = new ReplicaRoutingDataSource(replicaKeys, readYourWrites, userIdHeader);
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    /**
+     * Binds through a {@link MeterBinder}: the meter registry itself depends on the data source,
+     * so it cannot be injected into {@link #dataSource}.
+     */
+    @Bean
+    public MeterBinder replicaRoutingPoolMetrics(ObjectProvider<DataSource> dataSource) {
+        return registry -> {
+            dataSource.getIfAvailable();
+            MicrometerMetricsTrackerFactory metrics = new MicrometerMetricsTrackerFactory(registry);
+            pools.stream()
+                    .filter(pool -> pool.getMetricsTrackerFactory() == null && pool.getMetricRegistry() == null)
+                    .forEach(pool -> pool.setMetricsTrackerFactory(metrics));
+        };
+    }
+
+    @Override
+    public void destroy() {
+        pools.forEach(HikariDataSource::close);
+    }
+
+    private DataSource pool(DataSourceProperties properties, String url, String name) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url)
+                .build();
+        dataSource.setPoolName("shareit-" + name);
+        pools.add(dataSource);
+
+        return dataSource;
+    }
+}
@@ -1,17 +1,21 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 /**
@@ -25,6 +29,8 @@ import java.util.List;
 public class BookingController {
 
     private final BookingService bookingService;
+    @Value("${headers.total.count.name}")
+    private String totalCountHeader;
 
     @GetMapping("/{bookingId}")
     public ResponseEntity<BookingDto> getBookingById(@RequestHeader(name = "${headers.user.id.name}") Long userId,
@@ -52,6 +58,27 @@ public class BookingController {
                 .body(bookingService.create(userId, bookingCreateDto));
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> addBookings(
+            @RequestHeader(name = "${headers.user.id.name}") Long userId,
+            @RequestParam(name = "atomic", defaultValue = "true") boolean atomic,
+            @RequestBody List<BookingCreateDto> bookingCreateDtos) {
+        return ResponseEntity
+                .status(atomic ? HttpStatus.CREATED : HttpStatus.OK)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bookingService.createAll(userId, bookingCreateDtos, atomic));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BookingBatchResultDto>> patchBookings(
+            @RequestHeader(name = "${headers.user.id.name}") Long userId,
+            @RequestParam(name = "approved") Boolean approved,
+            @RequestBody List<Long> bookingIds) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(bookingService.patchAll(bookingIds, userId, approved));
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<BookingDto> patchBooking(@RequestHeader(name = "${headers.user.id.name}") Long userId,
                                                    @PathVariable Long bookingId,
@@ -73,10 +100,25 @@ public class BookingController {
                                                             @RequestParam(name = "from", required = false) Integer from,
                                                             @RequestParam(name = "size", required = false) Integer size,
                                                             @RequestParam(name = "state",
-                                                                    defaultValue = "ALL") String state) {
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(bookingService.getUserBookings(userId, state, from, size));
+                                                                    defaultValue = "ALL") String state,
+                                                            @RequestParam(name = "afterStart", required = false)
+                                                            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                            LocalDateTime afterStart,
+                                                            @RequestParam(name = "afterId", required = false)
+                                                            Long afterId,
+                                                            @RequestParam(name = "count", defaultValue = "false")
+                                                            boolean count) {
+        List<BookingDto> bookings = afterStart != null || afterId != null
+                ? bookingService.getUserBookingsAfter(userId, state, afterStart, afterId, size)
+                : bookingService.getUserBookings(userId, state, from, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (count) {
+            response.header(totalCountHeader, String.valueOf(bookingService.countUserBookings(userId, state)));
+        }
+
+        return response.body(bookings);
     }
 
     @GetMapping("/owner")
@@ -84,10 +126,25 @@ public class BookingController {
                                                              @RequestParam(name = "from", required = false) Integer from,
                                                              @RequestParam(name = "size", required = false) Integer size,
                                                              @RequestParam(name = "state",
-                                                                     defaultValue = "ALL") String state) {
-        return ResponseEntity.ok()
-                .contentType(MediaType.APPLICATION_JSON)
-                .body(bookingService.getOwnerBookings(userId, state, from, size));
+                                                                     defaultValue = "ALL") String state,
+                                                             @RequestParam(name = "afterStart", required = false)
+                                                             @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                             LocalDateTime afterStart,
+                                                             @RequestParam(name = "afterId", required = false)
+                                                             Long afterId,
+                                                             @RequestParam(name = "count", defaultValue = "false")
+                                                             boolean count) {
+        List<BookingDto> bookings = afterStart != null || afterId != null
+                ? bookingService.getOwnerBookingsAfter(userId, state, afterStart, afterId, size)
+                : bookingService.getOwnerBookings(userId, state, from, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (count) {
+            response.header(totalCountHeader, String.valueOf(bookingService.countOwnerBookings(userId, state)));
+        }
+
+        return response.body(bookings);
     }
 }
 
@@ -2,6 +2,8 @@ package ru.practicum.shareit.booking.dto;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -30,8 +32,34 @@ public class BookingMapperDto {
                 .build();
     }
 
-    public static List<BookingDto> toListBookingDto(List<Booking> bookings) {
-        return bookings.stream()
+    public static BookingDto toBookingDto(BookingRowDto row) {
+        return BookingDto.builder()
+                .id(row.getId())
+                .start(row.getStart())
+                .end(row.getEnd())
+                .status(row.getStatus())
+                .item(Item.builder()
+                        .id(row.getItemId())
+                        .name(row.getItemName())
+                        .description(row.getItemDescription())
+                        .available(row.getItemAvailable())
+                        .requestId(row.getItemRequestId())
+                        .owner(User.builder()
+                                .id(row.getOwnerId())
+                                .name(row.getOwnerName())
+                                .email(row.getOwnerEmail())
+                                .build())
+                        .build())
+                .booker(User.builder()
+                        .id(row.getBookerId())
+                        .name(row.getBookerName())
+                        .email(row.getBookerEmail())
+                        .build())
+                .build();
+    }
+
+    public static List<BookingDto> toListBookingDto(List<BookingRowDto> rows) {
+        return rows.stream()
                 .map(BookingMapperDto::toBookingDto)
                 .collect(Collectors.toList());
     }
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Flat row of a booking listing, selected with a constructor expression so that no entities are
+ * loaded into the persistence context. Carries the item's owner, so listings have the same shape
+ * as single-booking responses.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingRowDto {
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long ownerId;
+    private final String ownerName;
+    private final String ownerEmail;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
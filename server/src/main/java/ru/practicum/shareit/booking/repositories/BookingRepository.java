@@ -1,9 +1,7 @@
 package ru.practicum.shareit.booking.repositories;
 
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.stereotype.Repository;
@@ -11,12 +9,13 @@ import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 @EnableJpaRepositories
-public interface BookingRepository extends JpaRepository<Booking, Long> {
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
     void deleteById(Long id);
 
     @Query("SELECT b FROM Booking b " +
@@ -26,144 +25,65 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
             "WHERE b.id = :bookId")
     Optional<Booking> getBookingFull(Long bookId);
 
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner o " +
-            "WHERE b.booker.id = :bookerId " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner o " +
-                    "WHERE b.booker.id = :bookerId")
-    Page<Booking> findByBookerIdOrderByStartDesc(Long bookerId, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND b.status = :status " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE b.booker.id = :bookerId " +
-                    "AND b.status = :status")
-    Page<Booking> findByBookerIdAndStatusOrderByStartDesc(Long bookerId, BookingStatus status, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE i.owner.id = :ownerId " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE i.owner.id = :ownerId")
-    Page<Booking> findByItemOwnerOrderByStartDesc(Long ownerId, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.status = :status " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE i.owner.id = :ownerId " +
-                    "AND b.status = :status")
-    Page<Booking> findByItemOwnerAndStatusOrderByStartDesc(Long ownerId, BookingStatus status, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND b.end < :now " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE b.booker.id = :bookerId " +
-                    "AND b.end < :now")
-    Page<Booking> findByBookerIdAndEndLessThanOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND b.start > :now " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE b.booker.id = :bookerId " +
-                    "AND b.start > :now")
-    Page<Booking> findByBookerIdAndStartGreaterThanOrderByStartDesc(Long bookerId, LocalDateTime now, Pageable pageable);
+    /**
+     * Moves the booking to {@code status} if it is still waiting and {@code ownerId} owns its item
+     * without being its booker.
+     *
+     * @return 1 if the booking was updated, 0 otherwise
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id = :bookingId " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING " +
+            "AND b.booker.id <> :ownerId " +
+            "AND b.item.id IN (SELECT i.id FROM Item i WHERE i.owner.id = :ownerId)")
+    int updateWaitingStatusByOwner(Long bookingId, Long ownerId, BookingStatus status);
 
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.end < :now " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE i.owner.id = :ownerId " +
-                    "AND b.end < :now")
-    Page<Booking> findByItemOwnerAndEndLessThanOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
-            "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.start > :now " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE i.owner.id = :ownerId " +
-                    "AND b.start > :now")
-    Page<Booking> findByItemOwnerAndStartGreaterThanOrderByStartDesc(Long ownerId, LocalDateTime now, Pageable pageable);
-
-    @Query(value = "SELECT b FROM Booking b " +
+    @Query("SELECT b FROM Booking b " +
             "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE b.booker.id = :bookerId " +
-            "AND b.start < :now " +
-            "AND b.end > :now1 " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE b.booker.id = :bookerId " +
-                    "AND b.start < :now " +
-                    "AND b.end > :now1")
-    Page<Booking> findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartDesc(Long bookerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
+            "JOIN FETCH i.owner o " +
+            "JOIN FETCH b.booker u " +
+            "WHERE b.id IN :bookingIds")
+    List<Booking> findAllFullByIdIn(Collection<Long> bookingIds);
+
+    /**
+     * Moves the still waiting bookings among {@code bookingIds} to {@code status}.
+     *
+     * @return number of updated bookings
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Booking b SET b.status = :status " +
+            "WHERE b.id IN :bookingIds " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.WAITING")
+    int updateWaitingStatus(Collection<Long> bookingIds, BookingStatus status);
+
+    @Query("SELECT DISTINCT b.item.id FROM Booking b " +
+            "WHERE b.item.id IN :itemIds " +
+            "AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED " +
+            "AND b.end > :start " +
+            "AND b.start < :end")
+    List<Long> findItemIdsApprovedBetween(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end);
+
+    List<Booking> findAllByItemIdAndStatusIn(Long itemId, Collection<BookingStatus> statuses);
 
-    @Query(value = "SELECT b FROM Booking b " +
+    @Query("SELECT b FROM Booking b " +
             "JOIN FETCH b.item i " +
-            "JOIN FETCH i.owner " +
-            "WHERE i.owner.id = :ownerId " +
-            "AND b.start < :now " +
-            "AND b.end > :now1 " +
-            "ORDER BY b.start DESC",
-            countQuery = "SELECT COUNT(b) FROM Booking b " +
-                    "JOIN b.item i " +
-                    "JOIN i.owner " +
-                    "WHERE i.owner.id = :ownerId " +
-                    "AND b.start < :now " +
-                    "AND b.end > :now1")
-    Page<Booking> findByItemOwnerAndStartLessThanAndEndGreaterThanOrderByStartDesc(Long ownerId, LocalDateTime now, LocalDateTime now1, Pageable pageable);
+            "JOIN FETCH b.booker u " +
+            "WHERE i.id IN :itemIds " +
+            "AND (b.end = (SELECT MAX(l.end) FROM Booking l WHERE l.item.id = i.id AND l.end < :now) " +
+            "OR b.start = (SELECT MIN(n.start) FROM Booking n WHERE n.item.id = i.id AND n.start > :now))")
+    List<Booking> findLastAndNextByItemIds(Collection<Long> itemIds, LocalDateTime now);
 
-    Booking findFirstByItem_idAndEndBeforeOrderByEndDesc(Long itemId, LocalDateTime now);
+    /**
+     * Earliest moment after {@code now} when a booking of the item starts or ends, that is when
+     * its last or next booking changes without any write.
+     */
+    @Query("SELECT MIN(CASE WHEN b.start > :now THEN b.start ELSE b.end END) FROM Booking b " +
+            "WHERE b.item.id = :itemId AND b.end > :now")
+    LocalDateTime findNextEventTime(Long itemId, LocalDateTime now);
 
-    Booking findFirstByItem_idAndStartAfterOrderByStartAsc(Long itemId, LocalDateTime now);
+    long countByItemIdAndStatus(Long itemId, BookingStatus status);
 
     List<Booking> findByItem_IdAndBooker_IdOrderByStartDesc(Long itemId, Long userId);
 
-    List<Booking> findTop1BookingByItemIdAndEndIsBeforeAndStatusIs(Long itemId, LocalDateTime now, BookingStatus approved, Sort end);
-
-    List<Booking> findTop1BookingByItemIdAndEndIsAfterAndStatusIs(Long itemId, LocalDateTime now, BookingStatus approved, Sort end);
-
 }
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Offset page of the booker's bookings in {@code state}, ordered by start and id, both descending.
+     */
+    Slice<BookingRowDto> findBookerBookings(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Offset page of bookings on the owner's items, ordered like {@link #findBookerBookings}.
+     */
+    Slice<BookingRowDto> findOwnerBookings(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable);
+
+    /**
+     * Keyset page of the booker's bookings ordered by start and id, both descending.
+     * Returns at most {@code limit} rows strictly after the {@code (afterStart, afterId)} cursor.
+     */
+    List<BookingRowDto> findBookerBookingsAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                          LocalDateTime afterStart, Long afterId, int limit);
+
+    /**
+     * Keyset page of bookings on the owner's items, ordered like {@link #findBookerBookingsAfter}.
+     */
+    List<BookingRowDto> findOwnerBookingsAfter(Long ownerId, BookingState state, LocalDateTime now,
+                                         LocalDateTime afterStart, Long afterId, int limit);
+
+    long countBookerBookings(Long bookerId, BookingState state, LocalDateTime now);
+
+    long countOwnerBookings(Long ownerId, BookingState state, LocalDateTime now);
+
+    /**
+     * Inserts the new bookings as one JDBC batch and sets their generated ids. Identity ids keep
+     * Hibernate from batching inserts itself.
+     */
+    void insertAll(List<Booking> bookings);
+}
@@ -0,0 +1,241 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.hibernate.Session;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import javax.persistence.criteria.CompoundSelection;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Join;
+import javax.persistence.criteria.ParameterExpression;
+import javax.persistence.criteria.Path;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Every listing is built from the same criteria: who is asking (booker or owner), the state and
+ * the page kind. Values are bound as parameters, never inlined, so each combination renders the
+ * same JPQL and Hibernate compiles it once into its query plan cache. Listings select
+ * {@link BookingRowDto} rows rather than entities.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private static final String USER_ID = "userId";
+    private static final String NOW = "now";
+    private static final String STATUS = "status";
+    private static final String AFTER_START = "afterStart";
+    private static final String AFTER_ID = "afterId";
+    private static final String INSERT = "INSERT INTO bookings (start_date, end_date, item_id, booker_id, status) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Slice<BookingRowDto> findBookerBookings(Long bookerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return findPage(false, bookerId, state, now, pageable);
+    }
+
+    @Override
+    public Slice<BookingRowDto> findOwnerBookings(Long ownerId, BookingState state, LocalDateTime now, Pageable pageable) {
+        return findPage(true, ownerId, state, now, pageable);
+    }
+
+    @Override
+    public List<BookingRowDto> findBookerBookingsAfter(Long bookerId, BookingState state, LocalDateTime now,
+                                                 LocalDateTime afterStart, Long afterId, int limit) {
+        return findAfter(false, bookerId, state, now, afterStart, afterId, limit);
+    }
+
+    @Override
+    public List<BookingRowDto> findOwnerBookingsAfter(Long ownerId, BookingState state, LocalDateTime now,
+                                                LocalDateTime afterStart, Long afterId, int limit) {
+        return findAfter(true, ownerId, state, now, afterStart, afterId, limit);
+    }
+
+    @Override
+    public long countBookerBookings(Long bookerId, BookingState state, LocalDateTime now) {
+        return count(false, bookerId, state, now);
+    }
+
+    @Override
+    public long countOwnerBookings(Long ownerId, BookingState state, LocalDateTime now) {
+        return count(true, ownerId, state, now);
+    }
+
+    @Override
+    public void insertAll(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        entityManager.unwrap(Session.class).doWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(INSERT, new String[]{"id"})) {
+                for (Booking booking : bookings) {
+                    statement.setTimestamp(1, Timestamp.valueOf(booking.getStart()));
+                    statement.setTimestamp(2, Timestamp.valueOf(booking.getEnd()));
+                    statement.setLong(3, booking.getItem().getId());
+                    statement.setLong(4, booking.getBooker().getId());
+                    statement.setString(5, booking.getStatus().name());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    for (Booking booking : bookings) {
+                        keys.next();
+                        booking.setId(keys.getLong(1));
+                    }
+                }
+            }
+        });
+    }
+
+    private Slice<BookingRowDto> findPage(boolean byOwner, Long userId, BookingState state, LocalDateTime now,
+                                         Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRowDto> query = cb.createQuery(BookingRowDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+
+        query.select(selectRow(cb, booking, item))
+                .where(getPredicates(cb, booking, item, byOwner, state).toArray(new Predicate[0]))
+                .orderBy(cb.desc(booking.get("start")), cb.desc(booking.get("id")));
+
+        List<BookingRowDto> content = bind(entityManager.createQuery(query), userId, state, now)
+                .setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = content.size() > pageable.getPageSize();
+
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    private List<BookingRowDto> findAfter(boolean byOwner, Long userId, BookingState state, LocalDateTime now,
+                                          LocalDateTime afterStart, Long afterId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BookingRowDto> query = cb.createQuery(BookingRowDto.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+
+        Path<LocalDateTime> start = booking.get("start");
+        Path<Long> id = booking.get("id");
+        ParameterExpression<LocalDateTime> cursorStart = cb.parameter(LocalDateTime.class, AFTER_START);
+        List<Predicate> predicates = getPredicates(cb, booking, item, byOwner, state);
+        predicates.add(cb.or(
+                cb.lessThan(start, cursorStart),
+                cb.and(cb.equal(start, cursorStart), cb.lessThan(id, cb.parameter(Long.class, AFTER_ID)))));
+
+        query.select(selectRow(cb, booking, item))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(cb.desc(start), cb.desc(id));
+
+        return bind(entityManager.createQuery(query), userId, state, now)
+                .setParameter(AFTER_START, afterStart)
+                .setParameter(AFTER_ID, afterId)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    private long count(boolean byOwner, Long userId, BookingState state, LocalDateTime now) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Booking> booking = query.from(Booking.class);
+        Join<Booking, Item> item = booking.join("item");
+
+        query.select(cb.count(booking))
+                .where(getPredicates(cb, booking, item, byOwner, state).toArray(new Predicate[0]));
+
+        return bind(entityManager.createQuery(query), userId, state, now).getSingleResult();
+    }
+
+    private static CompoundSelection<BookingRowDto> selectRow(CriteriaBuilder cb, Root<Booking> booking,
+                                                            Join<Booking, Item> item) {
+        Join<Booking, User> booker = booking.join("booker");
+        Join<Item, User> owner = item.join("owner");
+
+        return cb.construct(BookingRowDto.class,
+                booking.get("id"), booking.get("start"), booking.get("end"), booking.get("status"),
+                item.get("id"), item.get("name"), item.get("description"), item.get("available"),
+                item.get("requestId"),
+                owner.get("id"), owner.get("name"), owner.get("email"),
+                booker.get("id"), booker.get("name"), booker.get("email"));
+    }
+
+    private static List<Predicate> getPredicates(CriteriaBuilder cb, Root<Booking> booking, Join<Booking, Item> item,
+                                                 boolean byOwner, BookingState state) {
+        Path<LocalDateTime> start = booking.get("start");
+        Path<LocalDateTime> end = booking.get("end");
+        ParameterExpression<Long> userId = cb.parameter(Long.class, USER_ID);
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (byOwner) {
+            predicates.add(cb.equal(item.get("owner").get("id"), userId));
+        } else {
+            predicates.add(cb.equal(booking.get("booker").get("id"), userId));
+        }
+
+        switch (state) {
+            case CURRENT:
+                ParameterExpression<LocalDateTime> now = cb.parameter(LocalDateTime.class, NOW);
+                predicates.add(cb.lessThan(start, now));
+                predicates.add(cb.greaterThan(end, now));
+                break;
+            case PAST:
+                predicates.add(cb.lessThan(end, cb.parameter(LocalDateTime.class, NOW)));
+                break;
+            case FUTURE:
+                predicates.add(cb.greaterThan(start, cb.parameter(LocalDateTime.class, NOW)));
+                break;
+            case WAITING:
+            case REJECTED:
+                predicates.add(cb.equal(booking.get("status"), cb.parameter(BookingStatus.class, STATUS)));
+                break;
+            default:
+                break;
+        }
+
+        return predicates;
+    }
+
+    /**
+     * Sets the parameters {@link #getPredicates} added for {@code state}.
+     */
+    private static <T> TypedQuery<T> bind(TypedQuery<T> query, Long userId, BookingState state, LocalDateTime now) {
+        query.setParameter(USER_ID, userId);
+
+        switch (state) {
+            case CURRENT:
+            case PAST:
+            case FUTURE:
+                query.setParameter(NOW, now);
+                break;
+            case WAITING:
+                query.setParameter(STATUS, BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                query.setParameter(STATUS, BookingStatus.REJECTED);
+                break;
+            default:
+                break;
+        }
+
+        return query;
+    }
+}
@@ -1,15 +1,30 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface BookingService {
     BookingDto create(Long userId, BookingCreateDto bookingCreateDto);
 
+    /**
+     * Creates several bookings of one booker in one transaction. When {@code atomic}, the first
+     * rejected entry fails the whole batch; otherwise rejected entries are reported in the result
+     * and the rest are created.
+     */
+    List<BookingBatchResultDto> createAll(Long userId, List<BookingCreateDto> bookingCreateDtos, boolean atomic);
+
     BookingDto patch(Long bookingId, Long userId, Boolean approved);
 
+    /**
+     * Approves or rejects the owner's waiting bookings with one update. Bookings that cannot be
+     * changed are reported in the result and left as they are.
+     */
+    List<BookingBatchResultDto> patchAll(List<Long> bookingIds, Long userId, Boolean approved);
+
     void deleteBookingById(Long id);
 
     BookingDto getBookingByIdAndBooker(Long userId, Long bookingId);
@@ -17,4 +32,14 @@ public interface BookingService {
     List<BookingDto> getUserBookings(Long userId, String state, Integer from, Integer size);
 
     List<BookingDto> getOwnerBookings(Long userId, String state, Integer from, Integer size);
+
+    List<BookingDto> getUserBookingsAfter(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                          Integer size);
+
+    List<BookingDto> getOwnerBookingsAfter(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                           Integer size);
+
+    long countUserBookings(Long userId, String state);
+
+    long countOwnerBookings(Long userId, String state);
 }
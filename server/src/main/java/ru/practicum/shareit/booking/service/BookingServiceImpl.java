@@ -2,11 +2,15 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -14,28 +18,53 @@ import ru.practicum.shareit.booking.repositories.BookingRepository;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.service.ItemResponseCache;
+import ru.practicum.shareit.item.service.ItemSummaries;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
-import javax.transaction.Transactional;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.booking.dto.BookingMapperDto.*;
 import static ru.practicum.shareit.util.PaginationUtil.getPaginationWithoutSort;
+import static ru.practicum.shareit.util.TransactionUtil.afterCompletion;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class BookingServiceImpl implements BookingService {
+    /**
+     * SQLSTATE of an exclusion constraint violation in PostgreSQL.
+     */
+    private static final String EXCLUSION_VIOLATION = "23P01";
+
     private final BookingRepository bookingRepository;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final ItemResponseCache itemResponseCache;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemBookingLocks itemBookingLocks;
+    private final ItemBookingIndex itemBookingIndex;
+    private final ItemSummaries itemSummaries;
+    @Value("${shareit.booking.batch.max-size:50}")
+    private int batchMaxSize = 50;
 
     @Override
-    @Transactional
     public BookingDto getBookingByIdAndBooker(Long userId, Long bookingId) {
         checkUserExist(userId);
 
@@ -55,6 +84,8 @@ public class BookingServiceImpl implements BookingService {
     @Override
     @Transactional
     public BookingDto create(Long userId, BookingCreateDto bookingCreateDto) {
+        lockItemUntilCompletion(bookingCreateDto.getItemId());
+
         Item item = itemRepository
                 .findByIdFull(bookingCreateDto.getItemId())
                 .orElseThrow(() -> new ItemNotFoundException("Такой предмет не существует"));
@@ -63,6 +94,152 @@ public class BookingServiceImpl implements BookingService {
                 .findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
 
+        checkBookable(item, userId, bookingCreateDto.getStart(), bookingCreateDto.getEnd());
+
+        if (itemBookingIndex.overlaps(item.getId(), bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
+            throw new BookingOverlapException("Предмет уже забронирован на это время");
+        }
+
+        Booking booking = fromBookingDto(BookingDto.builder()
+                .item(item)
+                .booker(booker)
+                .end(bookingCreateDto.getEnd())
+                .start(bookingCreateDto.getStart())
+                .status(BookingStatus.WAITING)
+                .build());
+
+        try {
+            Booking saved = bookingRepository.save(booking);
+            itemSummaries.bookingsCreated(List.of(saved));
+            itemBookingIndex.track(saved);
+
+            return toBookingDto(saved);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingOverlapException("Предмет уже забронирован на это время");
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> createAll(Long userId, List<BookingCreateDto> bookingCreateDtos,
+                                                 boolean atomic) {
+        if (bookingCreateDtos == null || bookingCreateDtos.isEmpty() || bookingCreateDtos.size() > batchMaxSize) {
+            throw new BookingParameterException("Пакет должен содержать от 1 до " + batchMaxSize + " бронирований");
+        }
+
+        User booker = userRepository
+                .findById(userId)
+                .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
+        Set<Long> itemIds = bookingCreateDtos.stream()
+                .map(BookingCreateDto::getItemId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+
+        lockItemsUntilCompletion(itemIds);
+
+        Map<Long, Item> items = new HashMap<>();
+
+        if (!itemIds.isEmpty()) {
+            itemRepository.findAllByIdsFull(itemIds).forEach(item -> items.put(item.getId(), item));
+        }
+
+        Map<Long, List<Booking>> accepted = new HashMap<>();
+        List<Booking> bookings = new ArrayList<>();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingCreateDtos.size()];
+
+        for (int i = 0; i < bookingCreateDtos.size(); i++) {
+            BookingCreateDto dto = bookingCreateDtos.get(i);
+
+            try {
+                Booking booking = prepareBatchEntry(dto, items.get(dto.getItemId()), booker,
+                        accepted.getOrDefault(dto.getItemId(), List.of()));
+                accepted.computeIfAbsent(dto.getItemId(), id -> new ArrayList<>()).add(booking);
+                bookings.add(booking);
+                results[i] = BookingBatchResultDto.builder().index(i).build();
+            } catch (ItemNotFoundException | UserNotFoundException | BookingParameterException
+                     | BookingTimestampException | BookingOverlapException e) {
+                if (atomic) {
+                    throw e;
+                }
+                results[i] = BookingBatchResultDto.builder().index(i).error(e.getMessage()).build();
+            }
+        }
+
+        try {
+            bookingRepository.insertAll(bookings);
+        } catch (DataIntegrityViolationException e) {
+            if (isExclusionViolation(e)) {
+                throw new BookingOverlapException("Предмет уже забронирован на это время");
+            }
+            throw e;
+        }
+
+        itemSummaries.bookingsCreated(bookings);
+        Iterator<Booking> created = bookings.iterator();
+        for (BookingBatchResultDto result : results) {
+            if (result.getError() == null) {
+                Booking booking = created.next();
+                itemBookingIndex.track(booking);
+                result.setBooking(toBookingDto(booking));
+            }
+        }
+
+        return List.of(results);
+    }
+
+    /**
+     * Runs the checks of {@link #create} for one batch entry, also against the entries of the
+     * same batch accepted so far, which are not in the index yet.
+     */
+    private Booking prepareBatchEntry(BookingCreateDto dto, Item item, User booker, List<Booking> acceptedForItem) {
+        if (item == null) {
+            throw new ItemNotFoundException("Такой предмет не существует");
+        }
+
+        if (dto.getStart() == null || dto.getEnd() == null || dto.getStart().isBefore(LocalDateTime.now())) {
+            throw new BookingTimestampException("Неправильное время бронирования");
+        }
+
+        checkBookable(item, booker.getId(), dto.getStart(), dto.getEnd());
+
+        boolean overlapsBatch = acceptedForItem.stream()
+                .anyMatch(other -> other.getStart().isBefore(dto.getEnd()) && other.getEnd().isAfter(dto.getStart()));
+
+        if (overlapsBatch || itemBookingIndex.overlaps(item.getId(), dto.getStart(), dto.getEnd())) {
+            throw new BookingOverlapException("Предмет уже забронирован на это время");
+        }
+
+        return Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(dto.getStart())
+                .end(dto.getEnd())
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+
+    private static void checkPatchable(Booking booking, Long userId) {
+        if (booking == null) {
+            throw new BookingNotFoundException("Бронь не найдена");
+        }
+
+        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+            throw new BookingParameterException("Бронь не находится в состоянии ожидания");
+        }
+
+        if (booking.getBooker().getId().equals(userId)) {
+            throw new BookingNotFoundException("Не тот юзер. Нельзя редактировать бронь");
+        }
+
+        if (!booking.getItem().getOwner().getId().equals(userId)) {
+            throw new BookingParameterException("У пользователя нет прав на редактирование брони");
+        }
+    }
+
+    private void checkBookable(Item item, Long userId, LocalDateTime start, LocalDateTime end) {
         if (Boolean.FALSE.equals(item.isAvailable())) {
             throw new BookingParameterException("Предмет недоступен");
         }
@@ -71,20 +248,37 @@ public class BookingServiceImpl implements BookingService {
             throw new UserNotFoundException("У пользователя нет прав на создание брони");
         }
 
-        if (checkTimestampBooking(bookingCreateDto.getStart(), bookingCreateDto.getEnd())) {
+        if (checkTimestampBooking(start, end)) {
             throw new BookingTimestampException("Неправильное время бронирования");
         }
+    }
 
+    /**
+     * Holds the item's lock until the transaction ends, so the overlap check and the insert
+     * of concurrent requests for the same item cannot interleave. Across server instances
+     * the exclusion constraint of the bookings table still applies.
+     */
+    private void lockItemUntilCompletion(Long itemId) {
+        if (itemId == null) {
+            return;
+        }
 
-        Booking booking = fromBookingDto(BookingDto.builder()
-                .item(item)
-                .booker(booker)
-                .end(bookingCreateDto.getEnd())
-                .start(bookingCreateDto.getStart())
-                .status(BookingStatus.WAITING)
-                .build());
+        Lock lock = itemBookingLocks.forItem(itemId);
+        lock.lock();
+        afterCompletion(lock::unlock);
+    }
+
+    private void lockItemsUntilCompletion(Collection<Long> itemIds) {
+        for (Lock lock : itemBookingLocks.forItems(itemIds)) {
+            lock.lock();
+            afterCompletion(lock::unlock);
+        }
+    }
 
-        return toBookingDto(bookingRepository.save(booking));
+    private static boolean isExclusionViolation(DataIntegrityViolationException e) {
+        Throwable cause = e.getMostSpecificCause();
+
+        return cause instanceof SQLException && EXCLUSION_VIOLATION.equals(((SQLException) cause).getSQLState());
     }
 
     private boolean checkTimestampBooking(LocalDateTime start, LocalDateTime end) {
@@ -98,68 +292,98 @@ public class BookingServiceImpl implements BookingService {
     @Transactional
     public BookingDto patch(Long bookingId, Long userId, Boolean approved) {
         checkUserExist(userId);
-        Booking booking = bookingRepository.getBookingFull(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException("Бронь не найдена"));
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        boolean updated = bookingRepository.updateWaitingStatusByOwner(bookingId, userId, status) == 1;
+        Booking booking = bookingRepository.getBookingFull(bookingId).orElse(null);
 
-        if (!booking.getStatus().equals(BookingStatus.WAITING)) {
+        if (!updated) {
+            checkPatchable(booking, userId);
             throw new BookingParameterException("Бронь не находится в состоянии ожидания");
         }
 
-        if (booking.getBooker().getId().equals(userId)) {
-            throw new BookingNotFoundException("Не тот юзер. Нельзя редактировать бронь");
+        itemSummaries.bookingsDecided(List.of(booking));
+        itemResponseCache.evictOwnerView(booking.getItem().getId());
+        itemBookingIndex.track(booking);
+
+        return toBookingDto(booking);
+    }
+
+    @Override
+    @Transactional
+    public List<BookingBatchResultDto> patchAll(List<Long> bookingIds, Long userId, Boolean approved) {
+        if (bookingIds == null || bookingIds.isEmpty() || bookingIds.size() > batchMaxSize) {
+            throw new BookingParameterException("Пакет должен содержать от 1 до " + batchMaxSize + " бронирований");
         }
 
-        if (!booking.getItem().getOwner().getId().equals(userId)) {
-            throw new BookingParameterException("У пользователя нет прав на редактирование брони");
+        if (approved == null) {
+            throw new BookingParameterException("Не указано решение по брони");
         }
 
-        booking.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        checkUserExist(userId);
+
+        Map<Long, Booking> bookings = bookingRepository.findAllFullByIdIn(new HashSet<>(bookingIds)).stream()
+                .collect(Collectors.toMap(Booking::getId, booking -> booking));
+        Map<Long, Booking> accepted = new LinkedHashMap<>();
+        BookingBatchResultDto[] results = new BookingBatchResultDto[bookingIds.size()];
+
+        for (int i = 0; i < bookingIds.size(); i++) {
+            Long bookingId = bookingIds.get(i);
+
+            try {
+                if (accepted.containsKey(bookingId)) {
+                    throw new BookingParameterException("Бронь уже есть в пакете");
+                }
+                Booking booking = bookings.get(bookingId);
+                checkPatchable(booking, userId);
+                accepted.put(bookingId, booking);
+                results[i] = BookingBatchResultDto.builder().index(i).build();
+            } catch (BookingNotFoundException | BookingParameterException e) {
+                results[i] = BookingBatchResultDto.builder().index(i).error(e.getMessage()).build();
+            }
+        }
+
+        BookingStatus status = approved ? BookingStatus.APPROVED : BookingStatus.REJECTED;
 
-        return toBookingDto(bookingRepository.save(booking));
+        if (!accepted.isEmpty()
+                && bookingRepository.updateWaitingStatus(accepted.keySet(), status) != accepted.size()) {
+            throw new BookingParameterException("Бронь не находится в состоянии ожидания");
+        }
+
+        for (int i = 0; i < results.length; i++) {
+            if (results[i].getError() == null) {
+                Booking booking = accepted.get(bookingIds.get(i));
+                booking.setStatus(status);
+                itemResponseCache.evictOwnerView(booking.getItem().getId());
+                itemBookingIndex.track(booking);
+                results[i].setBooking(toBookingDto(booking));
+            }
+        }
+
+        itemSummaries.bookingsDecided(accepted.values());
+
+        return List.of(results);
     }
 
     @Override
     @Transactional
     public void deleteBookingById(Long id) {
-        if (!bookingRepository.existsById(id)) {
-            throw new BookingNotFoundException("Брони не существует.");
-        }
+        Booking booking = bookingRepository.findById(id)
+                .orElseThrow(() -> new BookingNotFoundException("Брони не существует."));
 
         bookingRepository.deleteById(id);
+        itemSummaries.bookingDeleted(booking);
+        itemResponseCache.evictOwnerViews();
+        itemBookingIndex.remove(booking.getItem().getId(), id);
     }
 
     @Override
     public List<BookingDto> getUserBookings(Long userId, String state, Integer from, Integer size) {
         checkUserExist(userId);
         checkValidState(state);
-        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
-        LocalDateTime currentTime = LocalDateTime.now();
-        Page<Booking> bookings;
-        Pageable paginationWithoutSort = getPaginationWithoutSort(from, size);
-
-        switch (bookingState) {
-            case CURRENT:
-                bookings = bookingRepository.findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartDesc(userId,
-                        currentTime, currentTime, paginationWithoutSort);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByBookerIdAndEndLessThanOrderByStartDesc(userId, currentTime, paginationWithoutSort);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByBookerIdAndStartGreaterThanOrderByStartDesc(userId, currentTime, paginationWithoutSort);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, paginationWithoutSort);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, paginationWithoutSort);
-                break;
-            default:
-                bookings = bookingRepository.findByBookerIdOrderByStartDesc(userId, paginationWithoutSort);
-                break;
-        }
-
-        return toListBookingDto(bookings.stream().collect(Collectors.toList()));
+        Slice<BookingRowDto> bookings = bookingRepository.findBookerBookings(userId,
+                BookingState.valueOf(state.toUpperCase()), LocalDateTime.now(), getPaginationWithoutSort(from, size));
+
+        return toListBookingDto(bookings.getContent());
     }
 
     private static void checkValidState(String state) {
@@ -171,7 +395,7 @@ public class BookingServiceImpl implements BookingService {
     }
 
     private void checkUserExist(Long userId) {
-        if (!userRepository.existsById(userId)) {
+        if (!userExistenceCache.exists(userId)) {
             throw new UserNotFoundException("Пользователь не найден");
         }
     }
@@ -180,32 +404,57 @@ public class BookingServiceImpl implements BookingService {
     public List<BookingDto> getOwnerBookings(Long userId, String state, Integer from, Integer size) {
         checkUserExist(userId);
         checkValidState(state);
-        BookingState bookingState = BookingState.valueOf(state.toUpperCase());
-        Page<Booking> bookings;
-        Pageable paginationWithoutSort = getPaginationWithoutSort(from, size);
-        LocalDateTime currentTime = LocalDateTime.now();
-
-        switch (bookingState) {
-            case CURRENT:
-                bookings = bookingRepository.findByItemOwnerAndStartLessThanAndEndGreaterThanOrderByStartDesc(userId, currentTime, currentTime, paginationWithoutSort);
-                break;
-            case PAST:
-                bookings = bookingRepository.findByItemOwnerAndEndLessThanOrderByStartDesc(userId, currentTime, paginationWithoutSort);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findByItemOwnerAndStartGreaterThanOrderByStartDesc(userId, currentTime, paginationWithoutSort);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByItemOwnerAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, paginationWithoutSort);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByItemOwnerAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, paginationWithoutSort);
-                break;
-            default:
-                bookings = bookingRepository.findByItemOwnerOrderByStartDesc(userId, paginationWithoutSort);
-                break;
-        }
-
-        return toListBookingDto(bookings.stream().collect(Collectors.toList()));
+        Slice<BookingRowDto> bookings = bookingRepository.findOwnerBookings(userId,
+                BookingState.valueOf(state.toUpperCase()), LocalDateTime.now(), getPaginationWithoutSort(from, size));
+
+        return toListBookingDto(bookings.getContent());
+    }
+
+    @Override
+    public List<BookingDto> getUserBookingsAfter(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                                 Integer size) {
+        checkUserExist(userId);
+        checkValidState(state);
+        int limit = getCursorLimit(afterStart, afterId, size);
+
+        return toListBookingDto(bookingRepository.findBookerBookingsAfter(userId,
+                BookingState.valueOf(state.toUpperCase()), LocalDateTime.now(), afterStart, afterId, limit));
+    }
+
+    @Override
+    public List<BookingDto> getOwnerBookingsAfter(Long userId, String state, LocalDateTime afterStart, Long afterId,
+                                                  Integer size) {
+        checkUserExist(userId);
+        checkValidState(state);
+        int limit = getCursorLimit(afterStart, afterId, size);
+
+        return toListBookingDto(bookingRepository.findOwnerBookingsAfter(userId,
+                BookingState.valueOf(state.toUpperCase()), LocalDateTime.now(), afterStart, afterId, limit));
+    }
+
+    @Override
+    public long countUserBookings(Long userId, String state) {
+        checkUserExist(userId);
+        checkValidState(state);
+
+        return bookingRepository.countBookerBookings(userId, BookingState.valueOf(state.toUpperCase()),
+                LocalDateTime.now());
+    }
+
+    @Override
+    public long countOwnerBookings(Long userId, String state) {
+        checkUserExist(userId);
+        checkValidState(state);
+
+        return bookingRepository.countOwnerBookings(userId, BookingState.valueOf(state.toUpperCase()),
+                LocalDateTime.now());
+    }
+
+    private static int getCursorLimit(LocalDateTime afterStart, Long afterId, Integer size) {
+        if (afterStart == null || afterId == null || (size != null && size <= 0)) {
+            throw new PaginationParameterException("Неверные параметры пагинации.");
+        }
+
+        return size == null ? Integer.MAX_VALUE : size;
     }
 }
@@ -0,0 +1,272 @@
+package ru.practicum.shareit.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static ru.practicum.shareit.util.TransactionUtil.afterCommit;
+
+/**
+ * In-memory index of the bookings that hold an item ({@code WAITING} and {@code APPROVED}).
+ * An item is loaded from the database on first use and then kept in line by
+ * {@link BookingServiceImpl}, so overlap checks and last/next booking lookups are binary
+ * searches over sorted arrays instead of queries.
+ */
+@Component
+public class ItemBookingIndex {
+    private static final Set<BookingStatus> HOLDING_STATUSES = Set.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final Cache<Long, ItemBookings> items;
+    private final BookingRepository bookingRepository;
+    private final PrimaryReads primaryReads;
+
+    public ItemBookingIndex(BookingRepository bookingRepository,
+                            PrimaryReads primaryReads,
+                            @Value("${shareit.booking.index.max-items:10000}") long maxItems,
+                            MeterRegistry meterRegistry) {
+        this.bookingRepository = bookingRepository;
+        this.primaryReads = primaryReads;
+        this.items = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .recordStats()
+                .executor(Runnable::run)
+                .build(), "itemBookings");
+    }
+
+    /**
+     * Whether a holding booking of the item intersects {@code [start, end)}.
+     */
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return load(itemId).overlaps(toMicros(start), toMicros(end));
+    }
+
+    /**
+     * Approved booking with the latest end before {@code now}.
+     */
+    public Optional<BookingResponseDto> findLastApproved(Long itemId, LocalDateTime now) {
+        return load(itemId).lastApprovedEndingBefore(toMicros(now));
+    }
+
+    /**
+     * Approved booking with the earliest end after {@code now}.
+     */
+    public Optional<BookingResponseDto> findNextApproved(Long itemId, LocalDateTime now) {
+        return load(itemId).nextApprovedEndingAfter(toMicros(now));
+    }
+
+    /**
+     * Marks the slots of a grid that starts at {@code from} and is cut into {@code slots} steps of
+     * {@code step}: bit {@code i} is set when an approved booking intersects slot {@code i}.
+     */
+    public BitSet findApprovedSlots(Long itemId, LocalDateTime from, Duration step, int slots) {
+        return load(itemId).approvedSlots(toMicros(from), TimeUnit.NANOSECONDS.toMicros(step.toNanos()), slots);
+    }
+
+    /**
+     * Applies the booking's current state once the transaction commits: holding bookings are
+     * added or replaced, any other status drops the booking from the index.
+     */
+    public void track(Booking booking) {
+        Long itemId = booking.getItem().getId();
+        Entry entry = Entry.of(booking);
+
+        afterCommit(() -> items.asMap().computeIfPresent(itemId, (id, bookings) -> bookings.with(entry)));
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        afterCommit(() -> items.asMap().computeIfPresent(itemId, (id, bookings) -> bookings.without(bookingId)));
+    }
+
+    public void evict(Long itemId) {
+        items.invalidate(itemId);
+        afterCommit(() -> items.invalidate(itemId));
+    }
+
+    public void evictAll() {
+        items.invalidateAll();
+        afterCommit(items::invalidateAll);
+    }
+
+    private ItemBookings load(Long itemId) {
+        return items.get(itemId, id -> new ItemBookings(
+                primaryReads.read(() -> bookingRepository.findAllByItemIdAndStatusIn(id, HOLDING_STATUSES)).stream()
+                        .map(Entry::of)
+                        .collect(Collectors.toList())));
+    }
+
+    private static long toMicros(LocalDateTime time) {
+        return TimeUnit.SECONDS.toMicros(time.toEpochSecond(ZoneOffset.UTC)) + time.getNano() / 1_000;
+    }
+
+    private static LocalDateTime fromMicros(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000),
+                (int) Math.floorMod(micros, 1_000_000) * 1_000, ZoneOffset.UTC);
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final Long bookerId;
+        private final long start;
+        private final long end;
+        private final BookingStatus status;
+
+        private Entry(long id, Long bookerId, long start, long end, BookingStatus status) {
+            this.id = id;
+            this.bookerId = bookerId;
+            this.start = start;
+            this.end = end;
+            this.status = status;
+        }
+
+        private static Entry of(Booking booking) {
+            return new Entry(booking.getId(), booking.getBooker() == null ? null : booking.getBooker().getId(),
+                    toMicros(booking.getStart()), toMicros(booking.getEnd()), booking.getStatus());
+        }
+
+        private BookingResponseDto toResponse() {
+            return BookingResponseDto.builder()
+                    .id(id)
+                    .status(status)
+                    .start(fromMicros(start))
+                    .end(fromMicros(end))
+                    .bookerId(bookerId)
+                    .build();
+        }
+    }
+
+    /**
+     * Immutable snapshot of one item's holding bookings. Changes build a new snapshot, so
+     * readers never need a lock.
+     */
+    private static final class ItemBookings {
+        private final Entry[] byStart;
+        private final long[] starts;
+        /**
+         * {@code maxEnds[i]} is the latest end among {@code byStart[0..i]}.
+         */
+        private final long[] maxEnds;
+        private final Entry[] approvedByEnd;
+        private final long[] approvedEnds;
+
+        private ItemBookings(List<Entry> entries) {
+            byStart = entries.stream()
+                    .sorted(Comparator.comparingLong((Entry e) -> e.start).thenComparingLong(e -> e.id))
+                    .toArray(Entry[]::new);
+            starts = new long[byStart.length];
+            maxEnds = new long[byStart.length];
+
+            for (int i = 0; i < byStart.length; i++) {
+                starts[i] = byStart[i].start;
+                maxEnds[i] = i == 0 ? byStart[i].end : Math.max(maxEnds[i - 1], byStart[i].end);
+            }
+
+            approvedByEnd = entries.stream()
+                    .filter(e -> e.status == BookingStatus.APPROVED)
+                    .sorted(Comparator.comparingLong((Entry e) -> e.end).thenComparingLong(e -> e.id))
+                    .toArray(Entry[]::new);
+            approvedEnds = Arrays.stream(approvedByEnd).mapToLong(e -> e.end).toArray();
+        }
+
+        private boolean overlaps(long start, long end) {
+            int startingBeforeEnd = lowerBound(starts, end);
+
+            return startingBeforeEnd > 0 && maxEnds[startingBeforeEnd - 1] > start;
+        }
+
+        private Optional<BookingResponseDto> lastApprovedEndingBefore(long time) {
+            int i = lowerBound(approvedEnds, time) - 1;
+
+            return i < 0 ? Optional.empty() : Optional.of(approvedByEnd[i].toResponse());
+        }
+
+        private Optional<BookingResponseDto> nextApprovedEndingAfter(long time) {
+            int i = lowerBound(approvedEnds, time + 1);
+
+            return i == approvedEnds.length ? Optional.empty() : Optional.of(approvedByEnd[i].toResponse());
+        }
+
+        private BitSet approvedSlots(long from, long step, int slots) {
+            BitSet busy = new BitSet(slots);
+            long to = from + step * slots;
+
+            for (int i = lowerBound(approvedEnds, from + 1); i < approvedByEnd.length; i++) {
+                Entry entry = approvedByEnd[i];
+
+                if (entry.start < to) {
+                    int first = (int) Math.max(0, Math.floorDiv(entry.start - from, step));
+                    int last = (int) Math.min(slots, Math.floorDiv(entry.end - from + step - 1, step));
+                    busy.set(first, last);
+                }
+            }
+
+            return busy;
+        }
+
+        private ItemBookings with(Entry entry) {
+            List<Entry> entries = others(entry.id);
+
+            if (HOLDING_STATUSES.contains(entry.status)) {
+                entries.add(entry);
+            }
+
+            return new ItemBookings(entries);
+        }
+
+        private ItemBookings without(Long bookingId) {
+            return new ItemBookings(others(bookingId));
+        }
+
+        private List<Entry> others(long bookingId) {
+            List<Entry> entries = new ArrayList<>(byStart.length + 1);
+
+            for (Entry e : byStart) {
+                if (e.id != bookingId) {
+                    entries.add(e);
+                }
+            }
+
+            return entries;
+        }
+
+        /**
+         * Number of values strictly less than {@code key}.
+         */
+        private static int lowerBound(long[] values, long key) {
+            int low = 0;
+            int high = values.length;
+
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+
+                if (values[mid] < key) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+
+            return low;
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Striped locks that serialize booking creation per item inside one server instance.
+ * Bookings of different items almost never share a stripe, so they do not wait on each other.
+ */
+@Component
+public class ItemBookingLocks {
+    private final Lock[] stripes;
+
+    public ItemBookingLocks(@Value("${shareit.booking.lock-stripes:256}") int stripes) {
+        int size = stripes <= 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+
+        this.stripes = new Lock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forItem(Long itemId) {
+        return stripes[stripe(itemId)];
+    }
+
+    /**
+     * Distinct locks of the items in stripe order. Taking them in this order keeps two batches
+     * sharing items from deadlocking.
+     */
+    public List<Lock> forItems(Collection<Long> itemIds) {
+        return itemIds.stream()
+                .mapToInt(this::stripe)
+                .distinct()
+                .sorted()
+                .mapToObj(i -> stripes[i])
+                .collect(Collectors.toList());
+    }
+
+    private int stripe(Long itemId) {
+        int hash = Long.hashCode(itemId);
+
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -1,12 +1,23 @@
 package ru.practicum.shareit.comments.repositories;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.comments.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CommentRepository extends JpaRepository<Comment, Long> {
     List<Comment> getCommentsByItem_idOrderByCreatedDesc(Long itemId);
+
+    @Query("SELECT c FROM Comment c " +
+            "JOIN FETCH c.item i " +
+            "JOIN FETCH c.author a " +
+            "WHERE i.id IN :itemIds " +
+            "ORDER BY c.created DESC")
+    List<Comment> findAllByItemIds(Collection<Long> itemIds);
+
+    long countByItemId(Long itemId);
 }
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.datasource;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Reads that fill caches outliving the request. With replicas configured they run in their own
+ * read-only transaction on the primary, otherwise a lagging replica could be cached as the truth.
+ * Without replicas, or when the caller's read-write transaction already sits on the primary, the
+ * reader runs in the caller's transaction and takes no second pooled connection.
+ */
+@Component
+public class PrimaryReads {
+    private final TransactionTemplate transactionTemplate;
+
+    public PrimaryReads(PlatformTransactionManager transactionManager,
+                        @Value("${shareit.datasource.replica.urls:}") List<String> replicaUrls) {
+        if (replicaUrls.isEmpty()) {
+            this.transactionTemplate = null;
+        } else {
+            this.transactionTemplate = new TransactionTemplate(transactionManager);
+            this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            this.transactionTemplate.setReadOnly(true);
+        }
+    }
+
+    public <T> T read(Supplier<T> reader) {
+        if (transactionTemplate == null || inReadWriteTransaction()) {
+            return reader.get();
+        }
+
+        return ReplicaRoutingDataSource.onPrimary(() -> transactionTemplate.execute(status -> reader.get()));
+    }
+
+    private static boolean inReadWriteTransaction() {
+        return TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+}
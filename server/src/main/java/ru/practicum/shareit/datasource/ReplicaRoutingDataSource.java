@@ -0,0 +1,102 @@
+package ru.practicum.shareit.datasource;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static ru.practicum.shareit.util.TransactionUtil.afterCompletion;
+
+/**
+ * Sends read-only transactions to the replicas in turn and everything else to the primary.
+ * A user who wrote within the last {@code readYourWrites} keeps reading from the primary, so a
+ * lagging replica never hides their own changes. The key is picked when the connection is
+ * opened, so the data source must sit behind a
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy}: Spring marks the
+ * transaction read-only only after it has begun.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+
+    private static final ThreadLocal<Boolean> FORCE_PRIMARY = new ThreadLocal<>();
+
+    private final List<String> replicaKeys;
+    private final Cache<Long, Boolean> recentWriters;
+    private final String userIdHeader;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(List<String> replicaKeys, Duration readYourWrites, String userIdHeader) {
+        this.replicaKeys = List.copyOf(replicaKeys);
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(readYourWrites)
+                .executor(Runnable::run)
+                .build();
+        this.userIdHeader = userIdHeader;
+    }
+
+    /**
+     * Runs {@code action} with every connection it opens taken from the primary.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        Boolean previous = FORCE_PRIMARY.get();
+        FORCE_PRIMARY.set(Boolean.TRUE);
+
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                FORCE_PRIMARY.remove();
+            } else {
+                FORCE_PRIMARY.set(previous);
+            }
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (FORCE_PRIMARY.get() != null) {
+            return PRIMARY;
+        }
+
+        Long userId = currentUserId();
+
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (userId != null && TransactionSynchronizationManager.isActualTransactionActive()) {
+                recentWriters.put(userId, Boolean.TRUE);
+                afterCompletion(() -> recentWriters.put(userId, Boolean.TRUE));
+            }
+
+            return PRIMARY;
+        }
+
+        if (replicaKeys.isEmpty() || (userId != null && recentWriters.getIfPresent(userId) != null)) {
+            return PRIMARY;
+        }
+
+        return replicaKeys.get(Math.floorMod(nextReplica.getAndIncrement(), replicaKeys.size()));
+    }
+
+    private Long currentUserId() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+
+        String header = ((ServletRequestAttributes) attributes).getRequest().getHeader(userIdHeader);
+
+        try {
+            return header == null ? null : Long.valueOf(header.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
@@ -84,6 +84,12 @@ public class ErrorHandler {
         return new ErrorResponse(ex.getMessage());
     }
 
+    @ExceptionHandler(BookingOverlapException.class)
+    @ResponseStatus(HttpStatus.CONFLICT)
+    public ErrorResponse handleBookingOverlapException(BookingOverlapException ex) {
+        return new ErrorResponse(ex.getMessage());
+    }
+
     @ExceptionHandler(BookingUnsupportedStateException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST)
     public ErrorResponse handleBookingUnsupportedStateException(BookingUnsupportedStateException ex) {
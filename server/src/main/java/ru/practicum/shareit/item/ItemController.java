@@ -1,7 +1,9 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.PropertySource;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -9,11 +11,15 @@ import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.comments.dto.CommentRequestDto;
 import ru.practicum.shareit.comments.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
 import ru.practicum.shareit.item.service.ItemService;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -23,14 +29,34 @@ import java.util.List;
 @PropertySource("classpath:application.properties")
 public class ItemController {
     private final ItemService itemService;
+    @Value("${headers.total.count.name}")
+    private String totalCountHeader;
 
     @GetMapping
     public ResponseEntity<List<ItemResponseDto>> getAllItems(@RequestHeader(name = "${headers.user.id.name}") Long userId,
                                                             @RequestParam(name = "from", required = false) Integer from,
-                                                            @RequestParam(name = "size", required = false) Integer size) {
+                                                            @RequestParam(name = "size", required = false) Integer size,
+                                                            @RequestParam(name = "count", defaultValue = "false")
+                                                            boolean count) {
+        List<ItemResponseDto> items = itemService.findAllItemByUserId(userId, from, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (count) {
+            response.header(totalCountHeader, String.valueOf(itemService.countItemsByUserId(userId)));
+        }
+
+        return response.body(items);
+    }
+
+    @GetMapping("/dashboard")
+    public ResponseEntity<List<ItemDashboardDto>> getDashboard(
+            @RequestHeader(name = "${headers.user.id.name}") Long userId,
+            @RequestParam(name = "from", required = false) Integer from,
+            @RequestParam(name = "size", required = false) Integer size) {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(itemService.findAllItemByUserId(userId, from, size));
+                .body(itemService.getDashboard(userId, from, size));
     }
 
     @GetMapping("/{itemId}")
@@ -41,6 +67,17 @@ public class ItemController {
                 .body(itemService.findById(itemId, userId));
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<ItemAvailabilityDto> getAvailability(
+            @RequestHeader(name = "${headers.user.id.name}") Long userId,
+            @PathVariable Long itemId,
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(name = "to") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(itemService.getAvailability(itemId, userId, from, to));
+    }
+
     @PostMapping
     public ResponseEntity<ItemDto> addItem(@RequestHeader(name = "${headers.user.id.name}") Long userId,
                                            @RequestParam(name = "requestId", required = false) Long requestId,
@@ -79,10 +116,35 @@ public class ItemController {
                                                            @RequestParam(name = "from", required = false)
                                                            Integer from,
                                                            @RequestParam(name = "size", required = false)
-                                                           Integer size) {
+                                                           Integer size,
+                                                           @RequestParam(name = "count", defaultValue = "false")
+                                                           boolean count,
+                                                           @RequestParam(name = "start", required = false)
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           LocalDateTime start,
+                                                           @RequestParam(name = "end", required = false)
+                                                           @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                                                           LocalDateTime end) {
+        boolean free = start != null || end != null;
+        List<ItemDto> items = free
+                ? itemService.findFreeByText(text, start, end, from, size)
+                : itemService.findByText(text, from, size);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON);
+
+        if (count) {
+            long total = free ? itemService.countFreeByText(text, start, end) : itemService.countByText(text);
+            response.header(totalCountHeader, String.valueOf(total));
+        }
+
+        return response.body(items);
+    }
+
+    @GetMapping("/search/index")
+    public ResponseEntity<ItemSearchIndexReport> checkSearchIndex() {
         return ResponseEntity.ok()
                 .contentType(MediaType.APPLICATION_JSON)
-                .body(itemService.findByText(text, from, size));
+                .body(itemService.checkSearchIndex());
     }
 
     @PostMapping("/{itemId}/comment")
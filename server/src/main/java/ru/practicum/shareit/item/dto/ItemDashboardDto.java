@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemDashboardDto {
+    private long id;
+    private String name;
+    private Boolean available;
+    private BookingResponseDto lastBooking;
+    private BookingResponseDto nextBooking;
+    private int approvedBookings;
+    private int waitingBookings;
+    private int comments;
+}
@@ -1,10 +1,14 @@
 package ru.practicum.shareit.item.dto;
 
 import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.comments.dto.CommentResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -55,4 +59,57 @@ public class ItemMapperDto {
                 .requestId(item.getRequestId())
                 .build();
     }
+
+    public static ItemResponseDto toItemResponseDto(ItemSummary summary, List<CommentResponseDto> comments) {
+        Item item = summary.getItem();
+
+        return ItemResponseDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .available(item.isAvailable())
+                .description(item.getDescription())
+                .lastBooking(lastBooking(summary))
+                .nextBooking(nextBooking(summary))
+                .comments(comments)
+                .requestId(item.getRequestId())
+                .build();
+    }
+
+    public static ItemDashboardDto toItemDashboardDto(ItemSummary summary) {
+        return ItemDashboardDto.builder()
+                .id(summary.getItem().getId())
+                .name(summary.getItem().getName())
+                .available(summary.getItem().isAvailable())
+                .lastBooking(lastBooking(summary))
+                .nextBooking(nextBooking(summary))
+                .approvedBookings(summary.getApprovedCount())
+                .waitingBookings(summary.getWaitingCount())
+                .comments(summary.getCommentCount())
+                .build();
+    }
+
+    private static BookingResponseDto lastBooking(ItemSummary summary) {
+        return toBookingResponseDto(summary.getLastBookingId(), summary.getLastBookerId(), summary.getLastStart(),
+                summary.getLastEnd(), summary.getLastStatus());
+    }
+
+    private static BookingResponseDto nextBooking(ItemSummary summary) {
+        return toBookingResponseDto(summary.getNextBookingId(), summary.getNextBookerId(), summary.getNextStart(),
+                summary.getNextEnd(), summary.getNextStatus());
+    }
+
+    private static BookingResponseDto toBookingResponseDto(Long id, Long bookerId, LocalDateTime start,
+                                                           LocalDateTime end, BookingStatus status) {
+        if (id == null) {
+            return null;
+        }
+
+        return BookingResponseDto.builder()
+                .id(id)
+                .status(status)
+                .start(start)
+                .end(end)
+                .bookerId(bookerId)
+                .build();
+    }
 }
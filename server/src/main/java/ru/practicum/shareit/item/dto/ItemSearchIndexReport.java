@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+public class ItemSearchIndexReport {
+    private boolean enabled;
+    private int indexed;
+    private int stored;
+    private List<Long> missing;
+    private List<Long> outdated;
+    private List<Long> stale;
+    private boolean consistent;
+}
@@ -0,0 +1,73 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Precomputed booking and comment figures of one item, kept up to date by
+ * {@link ru.practicum.shareit.item.service.ItemSummaries} in the transactions that change them.
+ * The last and next bookings are copied in, so the owner's listing needs no join to bookings;
+ * they hold until {@code validUntil}, when a booking starts or ends and time alone moves them.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder(toBuilder = true)
+@Entity
+@Table(name = "item_summaries")
+public class ItemSummary {
+    @Id
+    @Column(name = "item_id")
+    private Long itemId;
+
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "item_id")
+    private Item item;
+
+    @Column(name = "approved_count", nullable = false)
+    private int approvedCount;
+
+    @Column(name = "waiting_count", nullable = false)
+    private int waitingCount;
+
+    @Column(name = "comment_count", nullable = false)
+    private int commentCount;
+
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "last_start")
+    private LocalDateTime lastStart;
+    @Column(name = "last_end")
+    private LocalDateTime lastEnd;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "last_status")
+    private BookingStatus lastStatus;
+
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "next_start")
+    private LocalDateTime nextStart;
+    @Column(name = "next_end")
+    private LocalDateTime nextEnd;
+    @Enumerated(EnumType.STRING)
+    @Column(name = "next_status")
+    private BookingStatus nextStatus;
+
+    /**
+     * Earliest start or end of a booking still ahead when the summary was computed; null when
+     * there is none. From then on the last and next bookings must be recomputed.
+     */
+    @Column(name = "valid_until")
+    private LocalDateTime validUntil;
+}
@@ -1,30 +1,123 @@
 package ru.practicum.shareit.item.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.item.model.Item;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
+    /**
+     * Approved booking of item {@code i} intersecting {@code [:start, :end)}, for anti-joins.
+     */
+    String APPROVED_IN_PERIOD = "SELECT b.id FROM Booking b " +
+            "WHERE b.item = i" +
+            " AND b.status = ru.practicum.shareit.booking.model.BookingStatus.APPROVED" +
+            " AND b.end > :start" +
+            " AND b.start < :end";
+    String APPROVED_IN_PERIOD_NATIVE = "SELECT 1 FROM bookings b " +
+            "WHERE b.item_id = i.id" +
+            " AND b.status = 'APPROVED'" +
+            " AND b.end_date > :start" +
+            " AND b.start_date < :end";
+
     void deleteById(Long id);
 
-    @Query(value = "SELECT i FROM Item i " +
+    @Query("SELECT i FROM Item i " +
             "JOIN FETCH i.owner o " +
             "WHERE i.available = true" +
             " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%'))" +
-            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))",
-            countQuery = "SELECT COUNT(i) FROM Item i " +
-                    "JOIN i.owner o " +
-                    "WHERE i.available = true" +
-                    " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%'))" +
-                    " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
-    Page<Item> searchPage(String text, Pageable pageable);
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
+    Slice<Item> searchPage(String text, Pageable pageable);
+
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE i.available = true" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', ?1, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', ?1, '%')))")
+    long countSearch(String text);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query) " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Number> searchFullTextIds(String query, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query)",
+            nativeQuery = true)
+    long countFullText(String query);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.available" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%'))) " +
+            "ORDER BY GREATEST(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Number> searchTrigramIds(String text, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.available" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')))",
+            nativeQuery = true)
+    long countTrigram(String text);
+
+    @Query("SELECT i FROM Item i " +
+            "JOIN FETCH i.owner o " +
+            "WHERE i.available = true" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')))" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD + ")")
+    Slice<Item> searchFreePage(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query("SELECT COUNT(i) FROM Item i " +
+            "WHERE i.available = true" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')))" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD + ")")
+    long countFreeSearch(String text, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query)" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD_NATIVE + ") " +
+            "ORDER BY ts_rank(i.search_vector, to_tsquery('simple', :query)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Number> searchFreeFullTextIds(String query, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.available AND i.search_vector @@ to_tsquery('simple', :query)" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD_NATIVE + ")",
+            nativeQuery = true)
+    long countFreeFullText(String query, LocalDateTime start, LocalDateTime end);
+
+    @Query(value = "SELECT i.id FROM items i " +
+            "WHERE i.available" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')))" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD_NATIVE + ") " +
+            "ORDER BY GREATEST(similarity(i.name, :text), similarity(i.description, :text)) DESC, i.id",
+            nativeQuery = true)
+    Slice<Number> searchFreeTrigramIds(String text, LocalDateTime start, LocalDateTime end, Pageable pageable);
+
+    @Query(value = "SELECT COUNT(*) FROM items i " +
+            "WHERE i.available" +
+            " AND (UPPER(i.name) LIKE UPPER(CONCAT('%', :text, '%'))" +
+            " OR UPPER(i.description) LIKE UPPER(CONCAT('%', :text, '%')))" +
+            " AND NOT EXISTS (" + APPROVED_IN_PERIOD_NATIVE + ")",
+            nativeQuery = true)
+    long countFreeTrigram(String text, LocalDateTime start, LocalDateTime end);
+
+    @Query("SELECT i FROM Item i " +
+            "JOIN FETCH i.owner o " +
+            "WHERE i.id IN :ids")
+    List<Item> findAllByIdsFull(Collection<Long> ids);
 
     @Query("SELECT i FROM Item i " +
             "JOIN FETCH i.owner o " +
@@ -33,5 +126,17 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
 
     List<Item> findAllByRequestId(Long requestId);
 
-    Page<Item> findAllByOwnerIdOrderByIdAsc(Long id, Pageable pageable);
+    @Query("SELECT i FROM Item i " +
+            "JOIN FETCH i.owner o " +
+            "WHERE i.requestId IN :requestIds")
+    List<Item> findAllByRequestIds(Collection<Long> requestIds);
+
+    Slice<Item> findAllByOwnerIdOrderByIdAsc(Long id, Pageable pageable);
+
+    @Query("SELECT i.id FROM Item i WHERE i.owner.id = :ownerId")
+    List<Long> findIdsByOwnerId(Long ownerId);
+
+    long countByOwnerId(Long id);
+
+    List<Item> findAllByAvailableTrue();
 }
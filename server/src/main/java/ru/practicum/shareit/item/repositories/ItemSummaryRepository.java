@@ -0,0 +1,42 @@
+package ru.practicum.shareit.item.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemSummary;
+
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ItemSummaryRepository extends JpaRepository<ItemSummary, Long> {
+    @Query("SELECT s FROM ItemSummary s " +
+            "JOIN FETCH s.item i " +
+            "WHERE i.owner.id = :ownerId " +
+            "ORDER BY i.id")
+    Slice<ItemSummary> findAllByOwnerId(Long ownerId, Pageable pageable);
+
+    /**
+     * Locks the rows in id order, so concurrent writers touching several items cannot deadlock.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM ItemSummary s " +
+            "WHERE s.itemId IN :itemIds " +
+            "ORDER BY s.itemId")
+    List<ItemSummary> findAllForUpdate(Collection<Long> itemIds);
+
+    @Query("SELECT s.itemId FROM ItemSummary s " +
+            "WHERE s.itemId IN (SELECT b.item.id FROM Booking b WHERE b.booker.id = :userId) " +
+            "OR s.itemId IN (SELECT c.item.id FROM Comment c WHERE c.author.id = :userId)")
+    List<Long> findItemIdsTouchedBy(Long userId);
+
+    @Query("SELECT s.itemId FROM ItemSummary s " +
+            "WHERE s.validUntil <= :now " +
+            "ORDER BY s.validUntil")
+    List<Long> findStaleItemIds(LocalDateTime now, Pageable pageable);
+}
@@ -0,0 +1,169 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.function.Function;
+
+import static ru.practicum.shareit.util.TransactionUtil.afterCommit;
+
+/**
+ * Read-through cache of assembled {@link ItemResponseDto} for {@code GET /items/{id}}.
+ * The shared view holds the item and its comments; the owner view adds last and next
+ * bookings and expires when the next booking ends.
+ */
+@Component
+public class ItemResponseCache {
+    private static final String VIEWS = "itemViews";
+    private static final String OWNER_VIEWS = "itemOwnerViews";
+
+    private final Cache<Long, ItemView> views;
+    private final Cache<Long, OwnerView> ownerViews;
+
+    public ItemResponseCache(@Value("${shareit.cache.items.max-size:10000}") long maxSize,
+                             MeterRegistry meterRegistry) {
+        Counter viewInvalidations = invalidationCounter(meterRegistry, VIEWS);
+        Counter ownerViewInvalidations = invalidationCounter(meterRegistry, OWNER_VIEWS);
+
+        views = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .executor(Runnable::run)
+                .<Long, ItemView>removalListener((key, value, cause) -> countExplicit(viewInvalidations, cause))
+                .build(), VIEWS);
+        ownerViews = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new UntilNextBooking())
+                .recordStats()
+                .executor(Runnable::run)
+                .<Long, OwnerView>removalListener((key, value, cause) -> countExplicit(ownerViewInvalidations, cause))
+                .build(), OWNER_VIEWS);
+    }
+
+    public ItemView getView(Long itemId, Function<Long, ItemView> loader) {
+        ItemView view = views.get(itemId, loader);
+
+        return new ItemView(view.getOwnerId(), copy(view.getResponse()));
+    }
+
+    public ItemResponseDto getOwnerView(Long itemId, Function<Long, OwnerView> loader) {
+        return copy(ownerViews.get(itemId, loader).getResponse());
+    }
+
+    /**
+     * Drops both views of the item now and, inside a transaction, once more after commit,
+     * so a reader racing the commit cannot put the old state back.
+     */
+    public void evict(Long itemId) {
+        views.invalidate(itemId);
+        ownerViews.invalidate(itemId);
+        afterCommit(() -> {
+            views.invalidate(itemId);
+            ownerViews.invalidate(itemId);
+        });
+    }
+
+    public void evictOwnerView(Long itemId) {
+        ownerViews.invalidate(itemId);
+        afterCommit(() -> ownerViews.invalidate(itemId));
+    }
+
+    public void evictOwnerViews() {
+        ownerViews.invalidateAll();
+        afterCommit(ownerViews::invalidateAll);
+    }
+
+    public void evictAll() {
+        views.invalidateAll();
+        ownerViews.invalidateAll();
+        afterCommit(() -> {
+            views.invalidateAll();
+            ownerViews.invalidateAll();
+        });
+    }
+
+    private static Counter invalidationCounter(MeterRegistry meterRegistry, String cacheName) {
+        return Counter.builder("cache.invalidations")
+                .description("Entries removed explicitly after item, comment or booking changes")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    private static void countExplicit(Counter counter, RemovalCause cause) {
+        if (cause == RemovalCause.EXPLICIT) {
+            counter.increment();
+        }
+    }
+
+    private static ItemResponseDto copy(ItemResponseDto response) {
+        return ItemResponseDto.builder()
+                .id(response.getId())
+                .name(response.getName())
+                .description(response.getDescription())
+                .available(response.getAvailable())
+                .lastBooking(response.getLastBooking())
+                .nextBooking(response.getNextBooking())
+                .requestId(response.getRequestId())
+                .comments(new ArrayList<>(response.getComments()))
+                .build();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class ItemView {
+        private final Long ownerId;
+        private final ItemResponseDto response;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static class OwnerView {
+        private final ItemResponseDto response;
+        /**
+         * End of the next approved booking, {@code null} when there is none.
+         */
+        private final LocalDateTime validUntil;
+    }
+
+    private static class UntilNextBooking implements Expiry<Long, OwnerView> {
+        private static final Duration MAX_EXPIRY = Duration.ofNanos(Long.MAX_VALUE);
+
+        @Override
+        public long expireAfterCreate(Long key, OwnerView value, long currentTime) {
+            if (value.getValidUntil() == null) {
+                return Long.MAX_VALUE;
+            }
+
+            Duration untilNextBooking = Duration.between(LocalDateTime.now(), value.getValidUntil());
+
+            if (untilNextBooking.isNegative()) {
+                return 0;
+            }
+
+            return untilNextBooking.compareTo(MAX_EXPIRY) > 0 ? Long.MAX_VALUE : untilNextBooking.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, OwnerView value, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, value, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, OwnerView value, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
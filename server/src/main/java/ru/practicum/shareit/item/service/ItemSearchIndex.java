@@ -0,0 +1,340 @@
+package ru.practicum.shareit.item.service;
+
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory inverted index over the name and description of available items.
+ * Both fields are split into trigrams, each trigram keeps a sorted {@code long[]} of item ids.
+ * A query is answered by intersecting the posting lists of its trigrams and checking the
+ * candidates with a substring match, so results are the same as for the LIKE search.
+ */
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final long[] EMPTY = new long[0];
+
+    private final Map<String, long[]> postings = new HashMap<>();
+    private final TreeMap<Long, Document> documents = new TreeMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public void rebuild(Collection<Item> items) {
+        Map<String, List<Long>> builder = new HashMap<>();
+        TreeMap<Long, Document> newDocuments = new TreeMap<>();
+
+        items.stream()
+                .filter(Item::isAvailable)
+                .sorted(Comparator.comparing(Item::getId))
+                .forEach(item -> {
+                    Document document = new Document(item);
+                    newDocuments.put(item.getId(), document);
+                    document.grams().forEach(gram -> builder.computeIfAbsent(gram, key -> new ArrayList<>())
+                            .add(item.getId()));
+                });
+
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            builder.forEach((gram, ids) -> postings.put(gram, ids.stream().mapToLong(Long::longValue).toArray()));
+            documents.clear();
+            documents.putAll(newDocuments);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(Item item) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(item.getId());
+
+            if (item.isAvailable()) {
+                Document document = new Document(item);
+                documents.put(item.getId(), document);
+                document.grams().forEach(gram -> postings.put(gram, insert(postings.get(gram), item.getId())));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(itemId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of matching items in ascending order, skipping the first {@code offset} matches.
+     */
+    public List<Long> search(String text, long offset, int limit) {
+        String query = normalize(text);
+        List<Long> result = new ArrayList<>();
+        long skipped = 0;
+
+        lock.readLock().lock();
+        try {
+            for (long id : candidates(query)) {
+                if (result.size() >= limit) {
+                    break;
+                }
+                if (!documents.get(id).matches(query)) {
+                    continue;
+                }
+                if (skipped < offset) {
+                    skipped++;
+                } else {
+                    result.add(id);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    /**
+     * Matches with ids above {@code afterId}, in id order; walks all matches in chunks without
+     * rescanning the ones already returned.
+     */
+    public List<Long> searchAfter(String text, long afterId, int limit) {
+        String query = normalize(text);
+        List<Long> result = new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            long[] candidates = candidates(query);
+            int position = Arrays.binarySearch(candidates, afterId + 1);
+
+            for (int i = position < 0 ? -position - 1 : position; i < candidates.length && result.size() < limit; i++) {
+                if (documents.get(candidates[i]).matches(query)) {
+                    result.add(candidates[i]);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        return result;
+    }
+
+    public long count(String text) {
+        String query = normalize(text);
+
+        lock.readLock().lock();
+        try {
+            return Arrays.stream(candidates(query))
+                    .filter(id -> documents.get(id).matches(query))
+                    .count();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Compares the index with the available items stored in the database.
+     */
+    public ItemSearchIndexReport check(Collection<Item> storedItems) {
+        Map<Long, Item> stored = storedItems.stream()
+                .filter(Item::isAvailable)
+                .collect(Collectors.toMap(Item::getId, item -> item));
+        List<Long> missing = new ArrayList<>();
+        List<Long> outdated = new ArrayList<>();
+        List<Long> stale = new ArrayList<>();
+        int indexed;
+
+        lock.readLock().lock();
+        try {
+            indexed = documents.size();
+            stored.values().forEach(item -> {
+                Document document = documents.get(item.getId());
+                if (document == null) {
+                    missing.add(item.getId());
+                } else if (!document.equals(new Document(item))) {
+                    outdated.add(item.getId());
+                }
+            });
+            documents.keySet().stream()
+                    .filter(id -> !stored.containsKey(id))
+                    .forEach(stale::add);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        missing.sort(Comparator.naturalOrder());
+        outdated.sort(Comparator.naturalOrder());
+
+        return ItemSearchIndexReport.builder()
+                .indexed(indexed)
+                .stored(stored.size())
+                .missing(missing)
+                .outdated(outdated)
+                .stale(stale)
+                .consistent(missing.isEmpty() && outdated.isEmpty() && stale.isEmpty())
+                .build();
+    }
+
+    private long[] candidates(String query) {
+        if (query.length() < GRAM_LENGTH) {
+            return documents.keySet().stream().mapToLong(Long::longValue).toArray();
+        }
+
+        List<long[]> lists = new ArrayList<>();
+        for (String gram : grams(query)) {
+            long[] ids = postings.get(gram);
+            if (ids == null) {
+                return EMPTY;
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(ids -> ids.length));
+
+        long[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+
+        return result;
+    }
+
+    private void removeDocument(Long itemId) {
+        Document document = documents.remove(itemId);
+
+        if (document == null) {
+            return;
+        }
+
+        document.grams().forEach(gram -> {
+            long[] ids = delete(postings.get(gram), itemId);
+            if (ids.length == 0) {
+                postings.remove(gram);
+            } else {
+                postings.put(gram, ids);
+            }
+        });
+    }
+
+    private static long[] insert(long[] ids, long id) {
+        if (ids == null) {
+            return new long[]{id};
+        }
+
+        int position = Arrays.binarySearch(ids, id);
+        if (position >= 0) {
+            return ids;
+        }
+
+        position = -position - 1;
+        long[] result = new long[ids.length + 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        result[position] = id;
+        System.arraycopy(ids, position, result, position + 1, ids.length - position);
+
+        return result;
+    }
+
+    private static long[] delete(long[] ids, long id) {
+        int position = Arrays.binarySearch(ids, id);
+        if (position < 0) {
+            return ids;
+        }
+
+        long[] result = new long[ids.length - 1];
+        System.arraycopy(ids, 0, result, 0, position);
+        System.arraycopy(ids, position + 1, result, position, ids.length - position - 1);
+
+        return result;
+    }
+
+    private static long[] intersect(long[] first, long[] second) {
+        long[] result = new long[Math.min(first.length, second.length)];
+        int i = 0;
+        int j = 0;
+        int size = 0;
+
+        while (i < first.length && j < second.length) {
+            if (first[i] < second[j]) {
+                i++;
+            } else if (first[i] > second[j]) {
+                j++;
+            } else {
+                result[size++] = first[i];
+                i++;
+                j++;
+            }
+        }
+
+        return Arrays.copyOf(result, size);
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+
+        for (int i = 0; i + GRAM_LENGTH <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM_LENGTH));
+        }
+
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.toUpperCase(Locale.ROOT);
+    }
+
+    private static final class Document {
+        private final String name;
+        private final String description;
+
+        private Document(Item item) {
+            this.name = normalize(item.getName());
+            this.description = normalize(item.getDescription());
+        }
+
+        private boolean matches(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        private Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(name);
+            grams.addAll(ItemSearchIndex.grams(description));
+            return grams;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Document)) {
+                return false;
+            }
+            Document document = (Document) o;
+            return name.equals(document.name) && description.equals(document.description);
+        }
+
+        @Override
+        public int hashCode() {
+            return name.hashCode() * 31 + description.hashCode();
+        }
+    }
+}
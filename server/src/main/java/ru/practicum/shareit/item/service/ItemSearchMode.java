@@ -0,0 +1,23 @@
+package ru.practicum.shareit.item.service;
+
+/**
+ * Item text search strategy, selected by the {@code shareit.search.mode} property.
+ */
+public enum ItemSearchMode {
+    /**
+     * Unindexed substring match, portable to H2 (the ci,test profile).
+     */
+    LIKE,
+    /**
+     * PostgreSQL full-text match on word prefixes, ranked by {@code ts_rank}.
+     */
+    FULL_TEXT,
+    /**
+     * PostgreSQL substring match served by pg_trgm indexes, ranked by similarity.
+     */
+    TRIGRAM,
+    /**
+     * Substring match answered by the in-process {@link ItemSearchIndex}, the database only loads the page.
+     */
+    MEMORY
+}
@@ -2,25 +2,47 @@ package ru.practicum.shareit.item.service;
 
 import ru.practicum.shareit.comments.dto.CommentRequestDto;
 import ru.practicum.shareit.comments.dto.CommentResponseDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 public interface ItemService {
     ItemDto save(Long userId, ItemDto itemDto, Long requestId);
 
     List<ItemDto> findAllItemByRequest(Long requestId);
 
+    Map<Long, List<ItemDto>> findAllItemByRequests(Collection<Long> requestIds);
+
     ItemDto patch(Long itemId, Long userId, ItemDto itemDto);
 
     ItemResponseDto findById(Long itemId, Long userId);
 
+    ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to);
+
     void delete(Long id);
 
     List<ItemResponseDto> findAllItemByUserId(Long userId, Integer from, Integer size);
 
+    List<ItemDashboardDto> getDashboard(Long userId, Integer from, Integer size);
+
     List<ItemDto> findByText(String text, Integer from, Integer size);
 
+    long countItemsByUserId(Long userId);
+
+    long countByText(String text);
+
+    List<ItemDto> findFreeByText(String text, LocalDateTime start, LocalDateTime end, Integer from, Integer size);
+
+    long countFreeByText(String text, LocalDateTime start, LocalDateTime end);
+
+    ItemSearchIndexReport checkSearchIndex();
+
     CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto);
 }
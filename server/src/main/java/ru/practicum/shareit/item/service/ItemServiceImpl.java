@@ -2,52 +2,94 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
 import ru.practicum.shareit.comments.dto.CommentMapperDto;
 import ru.practicum.shareit.comments.dto.CommentRequestDto;
 import ru.practicum.shareit.comments.dto.CommentResponseDto;
 import ru.practicum.shareit.comments.model.Comment;
 import ru.practicum.shareit.comments.repositories.CommentRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exceptions.*;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapperDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repositories.ItemRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
-import javax.transaction.Transactional;
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
-import static org.springframework.data.domain.Sort.Direction.DESC;
-import static ru.practicum.shareit.booking.dto.BookingMapperDto.bookingItemResponseDto;
 import static ru.practicum.shareit.comments.dto.CommentMapperDto.toCommentResponseDto;
 import static ru.practicum.shareit.comments.dto.CommentMapperDto.toListComment;
 import static ru.practicum.shareit.item.dto.ItemMapperDto.*;
 import static ru.practicum.shareit.util.PaginationUtil.getPaginationWithoutSort;
+import static ru.practicum.shareit.util.TransactionUtil.afterCommitOrNow;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
+@Transactional(readOnly = true)
 public class ItemServiceImpl implements ItemService {
+    /**
+     * Granularity of the availability calendar: a slot is busy when any approved booking touches it.
+     */
+    private static final Duration AVAILABILITY_SLOT = Duration.ofHours(1);
+    /**
+     * Index matches checked against bookings per query, keeping the IN list well under the bind limit.
+     */
+    private static final int FREE_SEARCH_CHUNK = 500;
+
     private final ItemRepository itemRepository;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemResponseCache itemResponseCache;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemBookingIndex itemBookingIndex;
+    private final PrimaryReads primaryReads;
+    private final ItemSummaries itemSummaries;
+    @Value("${shareit.search.mode:LIKE}")
+    private ItemSearchMode searchMode = ItemSearchMode.LIKE;
+    @Value("${shareit.items.availability.max-range:P366D}")
+    private Duration availabilityMaxRange = Duration.ofDays(366);
 
 
     @Override
+    @Transactional
     public ItemDto save(Long userId, ItemDto itemDto, Long requestId) {
         if (userId == null) {
             throw new ItemNotHeaderUserId("Заголовок айди юзера не найден");
@@ -64,6 +106,8 @@ public class ItemServiceImpl implements ItemService {
         Item item = fromItemDto(itemDto);
 
         Item save = itemRepository.save(item);
+        itemSummaries.create(save);
+        updateSearchIndex(save);
 
         return toItemDto(save);
     }
@@ -94,6 +138,8 @@ public class ItemServiceImpl implements ItemService {
             }
 
             Item save = itemRepository.save(itemForUpdate);
+            updateSearchIndex(save);
+            itemResponseCache.evict(itemId);
 
             return toItemDto(save);
         }
@@ -103,28 +149,106 @@ public class ItemServiceImpl implements ItemService {
 
     @Override
     public ItemResponseDto findById(Long itemId, Long userId) {
-        Item item = itemRepository.findByIdFull(itemId).orElseThrow(() -> new ItemNotFoundException("Вещь не найдена"));
-        List<CommentResponseDto> comments = toListComment(commentRepository.getCommentsByItem_idOrderByCreatedDesc(itemId));
-        ItemResponseDto itemResponseDto = toItemResponseDto(item, null, null, comments);
+        ItemResponseCache.ItemView view = itemResponseCache.getView(itemId, this::loadItemView);
 
-        if (!item.getOwner().getId().equals(userId)) {
-            return itemResponseDto;
+        if (!view.getOwnerId().equals(userId)) {
+            return view.getResponse();
         }
 
-        List<Booking> lastBooking = bookingRepository.findTop1BookingByItemIdAndEndIsBeforeAndStatusIs(
-                itemId, LocalDateTime.now(), BookingStatus.APPROVED, Sort.by(DESC, "end"));
-        List<Booking> nextBooking = bookingRepository.findTop1BookingByItemIdAndEndIsAfterAndStatusIs(
-                itemId, LocalDateTime.now(), BookingStatus.APPROVED, Sort.by(Sort.Direction.ASC, "end"));
+        return itemResponseCache.getOwnerView(itemId, id -> loadOwnerView(id, view.getResponse()));
+    }
+
+    private ItemResponseCache.ItemView loadItemView(Long itemId) {
+        return primaryReads.read(() -> {
+            Item item = itemRepository.findByIdFull(itemId)
+                    .orElseThrow(() -> new ItemNotFoundException("Вещь не найдена"));
+            List<CommentResponseDto> comments = toListComment(commentRepository
+                    .getCommentsByItem_idOrderByCreatedDesc(itemId));
+
+            return new ItemResponseCache.ItemView(item.getOwner().getId(),
+                    toItemResponseDto(item, null, null, comments));
+        });
+    }
+
+    private ItemResponseCache.OwnerView loadOwnerView(Long itemId, ItemResponseDto itemResponseDto) {
+        LocalDateTime now = LocalDateTime.now();
+        Optional<BookingResponseDto> lastBooking = itemBookingIndex.findLastApproved(itemId, now);
+        Optional<BookingResponseDto> nextBooking = itemBookingIndex.findNextApproved(itemId, now);
 
-        if (lastBooking.isEmpty() && !nextBooking.isEmpty()) {
-            itemResponseDto.setLastBooking(bookingItemResponseDto(nextBooking.get(0)));
+        if (lastBooking.isEmpty() && nextBooking.isPresent()) {
+            itemResponseDto.setLastBooking(nextBooking.get());
             itemResponseDto.setNextBooking(null);
-        } else if (!lastBooking.isEmpty() && !nextBooking.isEmpty()) {
-            itemResponseDto.setLastBooking(bookingItemResponseDto(lastBooking.get(0)));
-            itemResponseDto.setNextBooking(bookingItemResponseDto(nextBooking.get(0)));
+        } else if (lastBooking.isPresent() && nextBooking.isPresent()) {
+            itemResponseDto.setLastBooking(lastBooking.get());
+            itemResponseDto.setNextBooking(nextBooking.get());
+        }
+
+        return new ItemResponseCache.OwnerView(itemResponseDto, nextBooking.map(BookingResponseDto::getEnd).orElse(null));
+    }
+
+    @Override
+    public ItemAvailabilityDto getAvailability(Long itemId, Long userId, LocalDateTime from, LocalDateTime to) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+
+        checkPeriod(from, to);
+
+        if (Duration.between(from, to).compareTo(availabilityMaxRange) > 0) {
+            throw new ItemParameterException("Период не должен превышать " + availabilityMaxRange.toDays() + " дн.");
+        }
+
+        itemResponseCache.getView(itemId, this::loadItemView);
+
+        LocalDateTime gridStart = from.truncatedTo(ChronoUnit.HOURS);
+        int slots = (int) Duration.between(gridStart, to).dividedBy(AVAILABILITY_SLOT);
+        if (gridStart.plus(AVAILABILITY_SLOT.multipliedBy(slots)).isBefore(to)) {
+            slots++;
+        }
+        BitSet busy = itemBookingIndex.findApprovedSlots(itemId, gridStart, AVAILABILITY_SLOT, slots);
+
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(from)
+                .to(to)
+                .slots(toAvailabilitySlots(busy, gridStart, slots, from, to))
+                .build();
+    }
+
+    private static void checkPeriod(LocalDateTime start, LocalDateTime end) {
+        if (start == null || end == null || !start.isBefore(end)) {
+            throw new ItemParameterException("Неверный период");
+        }
+    }
+
+    /**
+     * Collapses runs of equal bits into slots, clipping the first and last one to the requested period.
+     */
+    private static List<AvailabilitySlotDto> toAvailabilitySlots(BitSet busy, LocalDateTime gridStart, int slots,
+                                                                 LocalDateTime from, LocalDateTime to) {
+        List<AvailabilitySlotDto> result = new ArrayList<>();
+        int runStart = 0;
+
+        while (runStart < slots) {
+            boolean free = !busy.get(runStart);
+            int runEnd = free ? busy.nextSetBit(runStart) : busy.nextClearBit(runStart);
+
+            if (runEnd < 0 || runEnd > slots) {
+                runEnd = slots;
+            }
+
+            LocalDateTime start = gridStart.plusHours(runStart);
+            LocalDateTime end = gridStart.plusHours(runEnd);
+
+            result.add(AvailabilitySlotDto.builder()
+                    .start(start.isBefore(from) ? from : start)
+                    .end(end.isAfter(to) ? to : end)
+                    .free(free)
+                    .build());
+            runStart = runEnd;
         }
 
-        return itemResponseDto;
+        return result;
     }
 
     @Override
@@ -135,28 +259,47 @@ public class ItemServiceImpl implements ItemService {
         }
 
         itemRepository.deleteById(id);
+        itemResponseCache.evict(id);
+        itemBookingIndex.evict(id);
+
+        if (searchMode == ItemSearchMode.MEMORY) {
+            afterCommitOrNow(() -> itemSearchIndex.remove(id));
+        }
     }
 
     @Override
     public List<ItemResponseDto> findAllItemByUserId(Long userId, Integer from, Integer size) {
-        List<ItemResponseDto> responseDtoList = new ArrayList<>();
         User owner = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
-        Pageable paginationWithoutSort = getPaginationWithoutSort(from, size);
-        List<Item> items = itemRepository.findAllByOwnerIdOrderByIdAsc(owner.getId(), paginationWithoutSort)
+        List<ItemSummary> summaries = itemSummaries.findByOwner(owner.getId(), getPaginationWithoutSort(from, size));
+
+        if (summaries.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        List<Long> itemIds = summaries.stream()
+                .map(ItemSummary::getItemId)
+                .collect(Collectors.toList());
+        Map<Long, List<CommentResponseDto>> commentsByItem = commentRepository.findAllByItemIds(itemIds)
                 .stream()
+                .collect(Collectors.groupingBy(comment -> comment.getItem().getId(),
+                        Collectors.mapping(CommentMapperDto::toCommentResponseDto, Collectors.toList())));
+
+        return summaries.stream()
+                .map(summary -> toItemResponseDto(summary,
+                        commentsByItem.getOrDefault(summary.getItemId(), new ArrayList<>())))
                 .collect(Collectors.toList());
+    }
 
-        for (Item item : items) {
-            List<CommentResponseDto> comments = CommentMapperDto
-                    .toListComment(commentRepository.getCommentsByItem_idOrderByCreatedDesc(item.getId()));
-            responseDtoList.add(toItemResponseDto(item,
-                    bookingRepository.findFirstByItem_idAndEndBeforeOrderByEndDesc(item.getId(), LocalDateTime.now()),
-                    bookingRepository.findFirstByItem_idAndStartAfterOrderByStartAsc(item.getId(), LocalDateTime.now()),
-                    comments));
+    @Override
+    public List<ItemDashboardDto> getDashboard(Long userId, Integer from, Integer size) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
         }
 
-        return responseDtoList;
+        return itemSummaries.findByOwner(userId, getPaginationWithoutSort(from, size)).stream()
+                .map(ItemMapperDto::toItemDashboardDto)
+                .collect(Collectors.toList());
     }
 
     @Override
@@ -167,12 +310,141 @@ public class ItemServiceImpl implements ItemService {
 
         Pageable paginationWithoutSort = getPaginationWithoutSort(from, size);
 
-        return toListItemDto(itemRepository.searchPage(text, paginationWithoutSort)
-                .stream()
-                .collect(Collectors.toList()));
+        switch (searchMode) {
+            case FULL_TEXT:
+                String query = toPrefixQuery(text);
+                if (query.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                return findAllByIdsInOrder(toIds(itemRepository.searchFullTextIds(query, paginationWithoutSort)));
+            case TRIGRAM:
+                return findAllByIdsInOrder(toIds(itemRepository.searchTrigramIds(text, paginationWithoutSort)));
+            case MEMORY:
+                return findAllByIdsInOrder(itemSearchIndex.search(text, paginationWithoutSort.getOffset(),
+                        paginationWithoutSort.getPageSize()));
+            default:
+                return toListItemDto(itemRepository.searchPage(text, paginationWithoutSort)
+                        .stream()
+                        .collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public List<ItemDto> findFreeByText(String text, LocalDateTime start, LocalDateTime end, Integer from,
+                                        Integer size) {
+        checkPeriod(start, end);
+
+        if (text.isBlank()) {
+            return new ArrayList<>();
+        }
+
+        Pageable paginationWithoutSort = getPaginationWithoutSort(from, size);
+
+        switch (searchMode) {
+            case FULL_TEXT:
+                String query = toPrefixQuery(text);
+                if (query.isEmpty()) {
+                    return new ArrayList<>();
+                }
+                return findAllByIdsInOrder(toIds(itemRepository.searchFreeFullTextIds(query, start, end,
+                        paginationWithoutSort)));
+            case TRIGRAM:
+                return findAllByIdsInOrder(toIds(itemRepository.searchFreeTrigramIds(text, start, end,
+                        paginationWithoutSort)));
+            case MEMORY:
+                return findAllByIdsInOrder(findFreeInIndex(text, start, end,
+                        paginationWithoutSort.getOffset() + paginationWithoutSort.getPageSize()).stream()
+                        .skip(paginationWithoutSort.getOffset())
+                        .limit(paginationWithoutSort.getPageSize())
+                        .collect(Collectors.toList()));
+            default:
+                return toListItemDto(itemRepository.searchFreePage(text, start, end, paginationWithoutSort)
+                        .stream()
+                        .collect(Collectors.toList()));
+        }
+    }
+
+    @Override
+    public long countFreeByText(String text, LocalDateTime start, LocalDateTime end) {
+        checkPeriod(start, end);
+
+        if (text.isBlank()) {
+            return 0;
+        }
+
+        switch (searchMode) {
+            case FULL_TEXT:
+                String query = toPrefixQuery(text);
+                return query.isEmpty() ? 0 : itemRepository.countFreeFullText(query, start, end);
+            case TRIGRAM:
+                return itemRepository.countFreeTrigram(text, start, end);
+            case MEMORY:
+                return findFreeInIndex(text, start, end, Long.MAX_VALUE).size();
+            default:
+                return itemRepository.countFreeSearch(text, start, end);
+        }
+    }
+
+    /**
+     * The first {@code limit} matches of the in-memory index without an approved booking in the
+     * period. Matches are walked in id order, one chunk and one booking query at a time.
+     */
+    private List<Long> findFreeInIndex(String text, LocalDateTime start, LocalDateTime end, long limit) {
+        List<Long> free = new ArrayList<>();
+        long afterId = 0;
+
+        while (free.size() < limit) {
+            List<Long> matches = itemSearchIndex.searchAfter(text, afterId, FREE_SEARCH_CHUNK);
+
+            if (matches.isEmpty()) {
+                break;
+            }
+
+            Set<Long> booked = new HashSet<>(bookingRepository.findItemIdsApprovedBetween(matches, start, end));
+            matches.stream()
+                    .filter(id -> !booked.contains(id))
+                    .limit(limit - free.size())
+                    .forEach(free::add);
+            afterId = matches.get(matches.size() - 1);
+
+            if (matches.size() < FREE_SEARCH_CHUNK) {
+                break;
+            }
+        }
+
+        return free;
     }
 
     @Override
+    public long countItemsByUserId(Long userId) {
+        if (!userExistenceCache.exists(userId)) {
+            throw new UserNotFoundException("Пользователь не найден");
+        }
+
+        return itemRepository.countByOwnerId(userId);
+    }
+
+    @Override
+    public long countByText(String text) {
+        if (text.isBlank()) {
+            return 0;
+        }
+
+        switch (searchMode) {
+            case FULL_TEXT:
+                String query = toPrefixQuery(text);
+                return query.isEmpty() ? 0 : itemRepository.countFullText(query);
+            case TRIGRAM:
+                return itemRepository.countTrigram(text);
+            case MEMORY:
+                return itemSearchIndex.count(text);
+            default:
+                return itemRepository.countSearch(text);
+        }
+    }
+
+    @Override
+    @Transactional
     public CommentResponseDto addComment(Long userId, Long itemId, CommentRequestDto commentRequestDto) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Пользователь не найден"));
@@ -191,6 +463,8 @@ public class ItemServiceImpl implements ItemService {
                 comment.setCreated(now);
                 comment.setText(commentRequestDto.getText());
                 comment = commentRepository.save(comment);
+                itemSummaries.commentAdded(itemId);
+                itemResponseCache.evict(itemId);
                 return toCommentResponseDto(comment);
             }
             throw new UserParameterException("Вещь не найдена у Юзера");
@@ -203,5 +477,76 @@ public class ItemServiceImpl implements ItemService {
     public List<ItemDto> findAllItemByRequest(Long requestId) {
         return toListItemDto(itemRepository.findAllByRequestId(requestId));
     }
-}
 
+    @Override
+    public Map<Long, List<ItemDto>> findAllItemByRequests(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        return itemRepository.findAllByRequestIds(requestIds)
+                .stream()
+                .collect(Collectors.groupingBy(Item::getRequestId,
+                        Collectors.mapping(ItemMapperDto::toItemDto, Collectors.toList())));
+    }
+
+    @Override
+    public ItemSearchIndexReport checkSearchIndex() {
+        ItemSearchIndexReport report = itemSearchIndex.check(itemRepository.findAllByAvailableTrue());
+        report.setEnabled(searchMode == ItemSearchMode.MEMORY);
+
+        return report;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildSearchIndex() {
+        if (searchMode != ItemSearchMode.MEMORY) {
+            return;
+        }
+
+        List<Item> items = primaryReads.read(itemRepository::findAllByAvailableTrue);
+        itemSearchIndex.rebuild(items);
+        log.info("Search index rebuilt, {} items", items.size());
+    }
+
+    /**
+     * Indexes the item once the transaction commits, so a rolled back change never shows up in search.
+     */
+    private void updateSearchIndex(Item item) {
+        if (searchMode == ItemSearchMode.MEMORY) {
+            afterCommitOrNow(() -> itemSearchIndex.put(item));
+        }
+    }
+
+    private static List<Long> toIds(Slice<Number> ids) {
+        return ids.stream()
+                .map(Number::longValue)
+                .collect(Collectors.toList());
+    }
+
+    private List<ItemDto> findAllByIdsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        Map<Long, Item> itemsById = itemRepository.findAllByIdsFull(ids).stream()
+                .collect(Collectors.toMap(Item::getId, item -> item));
+
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .map(ItemMapperDto::toItemDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Turns free text into a to_tsquery expression matching every word as a prefix,
+     * so that tsquery operators typed by the user are never interpreted.
+     */
+    static String toPrefixQuery(String text) {
+        return Arrays.stream(text.split("[^\\p{L}\\p{N}]+"))
+                .filter(word -> !word.isEmpty())
+                .map(word -> word + ":*")
+                .collect(Collectors.joining(" & "));
+    }
+}
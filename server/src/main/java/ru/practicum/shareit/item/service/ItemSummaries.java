@@ -0,0 +1,201 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.comments.repositories.CommentRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repositories.ItemSummaryRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains {@link ItemSummary} rows. Writers call it inside their transaction, after their
+ * change reached the database; it locks the affected rows, so concurrent changes to one item
+ * are applied one after another. Counts move by deltas, the last and next bookings are
+ * recomputed for the touched items only.
+ */
+@Component
+@RequiredArgsConstructor
+public class ItemSummaries {
+    private final ItemSummaryRepository itemSummaryRepository;
+    private final BookingRepository bookingRepository;
+    private final CommentRepository commentRepository;
+
+    /**
+     * Owner's items in id order. Summaries whose last or next booking has moved with time get
+     * them recomputed in a copy until {@link #refreshStale} or the next write stores them.
+     */
+    public List<ItemSummary> findByOwner(Long ownerId, Pageable pageable) {
+        List<ItemSummary> summaries = itemSummaryRepository.findAllByOwnerId(ownerId, pageable).getContent();
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleIds = summaries.stream()
+                .filter(summary -> isStale(summary, now))
+                .map(ItemSummary::getItemId)
+                .collect(Collectors.toList());
+
+        if (staleIds.isEmpty()) {
+            return summaries;
+        }
+
+        Map<Long, List<Booking>> bookingsByItem = bookingRepository.findLastAndNextByItemIds(staleIds, now)
+                .stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+
+        return summaries.stream()
+                .map(summary -> isStale(summary, now)
+                        ? withBookings(summary.toBuilder().build(),
+                        bookingsByItem.getOrDefault(summary.getItemId(), List.of()), now)
+                        : summary)
+                .collect(Collectors.toList());
+    }
+
+    public void create(Item item) {
+        itemSummaryRepository.save(ItemSummary.builder().item(item).build());
+    }
+
+    public void bookingsCreated(Collection<Booking> bookings) {
+        update(bookings, null, false);
+    }
+
+    /**
+     * Bookings that left {@code WAITING}; the entities carry the new status.
+     */
+    public void bookingsDecided(Collection<Booking> bookings) {
+        update(bookings, BookingStatus.WAITING, false);
+    }
+
+    public void bookingDeleted(Booking booking) {
+        update(List.of(booking), booking.getStatus(), true);
+    }
+
+    public void commentAdded(Long itemId) {
+        itemSummaryRepository.findAllForUpdate(List.of(itemId))
+                .forEach(summary -> summary.setCommentCount(summary.getCommentCount() + 1));
+    }
+
+    /**
+     * Items whose bookings or comments go away with the user's cascading delete; pass them to
+     * {@link #rebuild} once the delete is flushed.
+     */
+    public List<Long> findItemIdsTouchedBy(Long userId) {
+        return itemSummaryRepository.findItemIdsTouchedBy(userId);
+    }
+
+    /**
+     * Recounts the summaries from scratch, for changes made behind the service layer.
+     */
+    public void rebuild(Collection<Long> itemIds) {
+        if (itemIds.isEmpty()) {
+            return;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ItemSummary summary : itemSummaryRepository.findAllForUpdate(itemIds)) {
+            Long itemId = summary.getItemId();
+            summary.setApprovedCount((int) bookingRepository.countByItemIdAndStatus(itemId, BookingStatus.APPROVED));
+            summary.setWaitingCount((int) bookingRepository.countByItemIdAndStatus(itemId, BookingStatus.WAITING));
+            summary.setCommentCount((int) commentRepository.countByItemId(itemId));
+            refreshBookings(summary, now);
+        }
+    }
+
+    /**
+     * Stores the recomputed last and next bookings of up to {@code limit} summaries whose
+     * {@code validUntil} has passed, oldest first; returns how many were due.
+     */
+    @Transactional
+    public int refreshStale(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> staleIds = itemSummaryRepository.findStaleItemIds(now, PageRequest.of(0, limit));
+
+        if (staleIds.isEmpty()) {
+            return 0;
+        }
+
+        for (ItemSummary summary : itemSummaryRepository.findAllForUpdate(staleIds)) {
+            if (isStale(summary, now)) {
+                refreshBookings(summary, now);
+            }
+        }
+
+        return staleIds.size();
+    }
+
+    private void update(Collection<Booking> bookings, BookingStatus previous, boolean removed) {
+        if (bookings.isEmpty()) {
+            return;
+        }
+
+        Map<Long, List<Booking>> bookingsByItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        LocalDateTime now = LocalDateTime.now();
+
+        for (ItemSummary summary : itemSummaryRepository.findAllForUpdate(bookingsByItem.keySet())) {
+            for (Booking booking : bookingsByItem.get(summary.getItemId())) {
+                count(summary, previous, -1);
+
+                if (!removed) {
+                    count(summary, booking.getStatus(), 1);
+                }
+            }
+            refreshBookings(summary, now);
+        }
+    }
+
+    private void refreshBookings(ItemSummary summary, LocalDateTime now) {
+        withBookings(summary, bookingRepository.findLastAndNextByItemIds(List.of(summary.getItemId()), now), now);
+        summary.setValidUntil(bookingRepository.findNextEventTime(summary.getItemId(), now));
+    }
+
+    private static void count(ItemSummary summary, BookingStatus status, int delta) {
+        if (status == BookingStatus.APPROVED) {
+            summary.setApprovedCount(summary.getApprovedCount() + delta);
+        } else if (status == BookingStatus.WAITING) {
+            summary.setWaitingCount(summary.getWaitingCount() + delta);
+        }
+    }
+
+    private static boolean isStale(ItemSummary summary, LocalDateTime now) {
+        return summary.getValidUntil() != null && !summary.getValidUntil().isAfter(now);
+    }
+
+    /**
+     * Copies the last and next bookings picked the same way as {@link BookingRepository#findLastAndNextByItemIds}.
+     */
+    private static ItemSummary withBookings(ItemSummary summary, List<Booking> bookings, LocalDateTime now) {
+        Booking last = bookings.stream()
+                .filter(booking -> booking.getEnd().isBefore(now))
+                .max(Comparator.comparing(Booking::getEnd))
+                .orElse(null);
+        Booking next = bookings.stream()
+                .filter(booking -> booking.getStart().isAfter(now))
+                .min(Comparator.comparing(Booking::getStart))
+                .orElse(null);
+
+        summary.setLastBookingId(last == null ? null : last.getId());
+        summary.setLastBookerId(last == null ? null : last.getBooker().getId());
+        summary.setLastStart(last == null ? null : last.getStart());
+        summary.setLastEnd(last == null ? null : last.getEnd());
+        summary.setLastStatus(last == null ? null : last.getStatus());
+        summary.setNextBookingId(next == null ? null : next.getId());
+        summary.setNextBookerId(next == null ? null : next.getBooker().getId());
+        summary.setNextStart(next == null ? null : next.getStart());
+        summary.setNextEnd(next == null ? null : next.getEnd());
+        summary.setNextStatus(next == null ? null : next.getStatus());
+
+        return summary;
+    }
+}
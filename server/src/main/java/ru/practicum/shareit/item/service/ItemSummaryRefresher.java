@@ -0,0 +1,40 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Stores the last and next bookings of summaries that time alone has outdated, so the owner's
+ * listing stops recomputing them on every read. Disabled with {@code shareit.items.summaries.refresh=false}.
+ */
+@Component
+@EnableScheduling
+@ConditionalOnProperty(name = "shareit.items.summaries.refresh", havingValue = "true", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSummaryRefresher {
+    private final ItemSummaries itemSummaries;
+
+    @Value("${shareit.items.summaries.refresh-batch:500}")
+    private int batchSize = 500;
+
+    @Scheduled(fixedDelayString = "${shareit.items.summaries.refresh-interval:PT1M}")
+    public void refreshStale() {
+        int refreshed = 0;
+        int due;
+
+        do {
+            due = itemSummaries.refreshStale(batchSize);
+            refreshed += due;
+        } while (due == batchSize);
+
+        if (refreshed > 0) {
+            log.debug("Refreshed {} item summaries", refreshed);
+        }
+    }
+}
@@ -4,28 +4,31 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestPost;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
-import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.PaginationUtil;
 
-import javax.transaction.Transactional;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 import static ru.practicum.shareit.request.dto.ItemRequestsDtoMapper.*;
 
 @Service
 @RequiredArgsConstructor
-@Transactional
+@Transactional(readOnly = true)
 public class ItemRequestServiceImpl implements ItemRequestService {
     private final ItemRequestRepository itemRequestRepository;
-    private final UserRepository userRepository;
+    private final UserExistenceCache userExistenceCache;
     private final ItemService itemService;
 
     @Override
@@ -33,7 +36,7 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         checkUserExists(userId);
         List<ItemRequestDto> itemRequestDtos = itemRequestDtos(itemRequestRepository
                 .findAllByRequestorIdOrderByCreatedDesc(userId));
-        itemRequestDtos.forEach(i -> i.setItems(itemService.findAllItemByRequest(i.getId())));
+        fillItems(itemRequestDtos);
 
         return itemRequestDtos;
     }
@@ -57,12 +60,13 @@ public class ItemRequestServiceImpl implements ItemRequestService {
                 paginationWithSortDesc);
         List<ItemRequestDto> itemRequestDtos = itemRequestDtos(findItemRequests.stream()
                 .collect(Collectors.toList()));
-        itemRequestDtos.forEach(s -> s.setItems(itemService.findAllItemByRequest(s.getId())));
+        fillItems(itemRequestDtos);
 
         return itemRequestDtos;
     }
 
     @Override
+    @Transactional
     public ItemRequestDto addItemRequest(Long requesterId, ItemRequestPost itemRequestPost) {
         checkUserExists(requesterId);
         ItemRequest itemRequest = fromItemRequestPost(requesterId, itemRequestPost);
@@ -70,8 +74,16 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return toItemDto(itemRequestRepository.save(itemRequest));
     }
 
+    private void fillItems(List<ItemRequestDto> itemRequestDtos) {
+        Map<Long, List<ItemDto>> itemsByRequest = itemService.findAllItemByRequests(itemRequestDtos.stream()
+                .map(ItemRequestDto::getId)
+                .collect(Collectors.toList()));
+
+        itemRequestDtos.forEach(i -> i.setItems(itemsByRequest.getOrDefault(i.getId(), new ArrayList<>())));
+    }
+
     private void checkUserExists(Long requesterId) {
-        if (!userRepository.existsById(requesterId)) {
+        if (!userExistenceCache.exists(requesterId)) {
             throw new UserNotFoundException("Пользователь не найден");
         }
     }
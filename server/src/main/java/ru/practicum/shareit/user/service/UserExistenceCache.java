@@ -0,0 +1,89 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import java.time.Duration;
+
+import static ru.practicum.shareit.util.TransactionUtil.afterCommit;
+
+/**
+ * Bounded cache of user ids checked against the {@code X-Sharer-User-Id} header.
+ * Unknown ids are cached too, for a shorter time, so repeated requests with a wrong
+ * header do not reach the database either. {@link UserServiceImpl} keeps entries in
+ * line with saves and deletes.
+ */
+@Component
+public class UserExistenceCache {
+    private final Cache<Long, Boolean> users;
+    private final UserRepository userRepository;
+    private final PrimaryReads primaryReads;
+
+    public UserExistenceCache(UserRepository userRepository,
+                              PrimaryReads primaryReads,
+                              @Value("${shareit.cache.users.max-size:100000}") long maxSize,
+                              @Value("${shareit.cache.users.ttl:PT10M}") Duration ttl,
+                              @Value("${shareit.cache.users.negative-ttl:PT30S}") Duration negativeTtl,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.primaryReads = primaryReads;
+        this.users = CaffeineCacheMetrics.monitor(meterRegistry, Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new ByPresence(ttl.toNanos(), negativeTtl.toNanos()))
+                .recordStats()
+                .executor(Runnable::run)
+                .build(), "users");
+    }
+
+    public boolean exists(Long userId) {
+        if (userId == null) {
+            return false;
+        }
+
+        return users.get(userId, id -> primaryReads.read(() -> userRepository.existsById(id)));
+    }
+
+    public void markSaved(Long userId) {
+        users.put(userId, true);
+    }
+
+    /**
+     * Forgets the user now and records it as absent once the deleting transaction commits.
+     */
+    public void markDeleted(Long userId) {
+        users.invalidate(userId);
+        afterCommit(() -> users.put(userId, false));
+    }
+
+    private static class ByPresence implements Expiry<Long, Boolean> {
+        private final long ttl;
+        private final long negativeTtl;
+
+        private ByPresence(long ttl, long negativeTtl) {
+            this.ttl = ttl;
+            this.negativeTtl = negativeTtl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long key, Boolean exists, long currentTime) {
+            return exists ? ttl : negativeTtl;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long key, Boolean exists, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, exists, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long key, Boolean exists, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
@@ -3,23 +3,35 @@ package ru.practicum.shareit.user.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.exceptions.UserUniqueEmailException;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.service.ItemResponseCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemSummaries;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
-import javax.transaction.Transactional;
 import java.util.List;
 import java.util.Optional;
 
 import static ru.practicum.shareit.user.dto.UserMapperDto.*;
+import static ru.practicum.shareit.util.TransactionUtil.afterCommitOrNow;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
+    private final ItemResponseCache itemResponseCache;
+    private final UserExistenceCache userExistenceCache;
+    private final ItemBookingIndex itemBookingIndex;
+    private final ItemSummaries itemSummaries;
+    private final ItemRepository itemRepository;
+    private final ItemSearchIndex itemSearchIndex;
 
     @Override
     public UserDto save(UserDto userDto) {
@@ -31,6 +43,7 @@ public class UserServiceImpl implements UserService {
         }
 
         User save = userRepository.save(user);
+        userExistenceCache.markSaved(save.getId());
         log.info("Пользователь сохранен: " + save);
 
         return toUserDto(save);
@@ -64,6 +77,7 @@ public class UserServiceImpl implements UserService {
             }
 
             User patch = userRepository.save(userForPatch);
+            itemResponseCache.evictAll();
             log.info("Пользователь обновлён: " + patch);
 
             return toUserDto(patch);
@@ -73,6 +87,7 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
+    @Transactional(readOnly = true)
     public UserDto findById(Long id) {
         Optional<User> findById = userRepository.findById(id);
 
@@ -90,10 +105,19 @@ public class UserServiceImpl implements UserService {
             throw new UserNotFoundException("Пользователь не найден");
         }
 
+        List<Long> ownedItemIds = itemRepository.findIdsByOwnerId(id);
+        List<Long> touchedItemIds = itemSummaries.findItemIdsTouchedBy(id);
         userRepository.deleteUserByIdIs(id);
+        userRepository.flush();
+        itemSummaries.rebuild(touchedItemIds);
+        userExistenceCache.markDeleted(id);
+        itemResponseCache.evictAll();
+        itemBookingIndex.evictAll();
+        afterCommitOrNow(() -> ownedItemIds.forEach(itemSearchIndex::remove));
     }
 
     @Override
+    @Transactional(readOnly = true)
     public List<UserDto> findAll() {
         return toListUserDto(userRepository.findAll());
     }
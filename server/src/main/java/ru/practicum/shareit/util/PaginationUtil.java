@@ -8,11 +8,17 @@ import ru.practicum.shareit.exceptions.PaginationParameterException;
 
 @UtilityClass
 public class PaginationUtil {
+    /**
+     * Page size used when the client sets no pagination. Slice queries read one extra row,
+     * so the size stays below {@link Integer#MAX_VALUE} to keep that limit from overflowing.
+     */
+    public static final int UNBOUNDED_PAGE_SIZE = Integer.MAX_VALUE - 1;
+
     public static Pageable getPaginationWithSortDesc(Integer from, Integer size) {
         Sort sortCreated = Sort.by("created").descending();
 
         if (from == null || size == null) {
-            return PageRequest.of(0, Integer.MAX_VALUE, sortCreated);
+            return PageRequest.of(0, UNBOUNDED_PAGE_SIZE, sortCreated);
         }
 
         if (from < 0 || size < 0) {
@@ -24,7 +30,7 @@ public class PaginationUtil {
 
     public static Pageable getPaginationWithoutSort(Integer from, Integer size) {
         if (from == null || size == null) {
-            return PageRequest.of(0, Integer.MAX_VALUE);
+            return PageRequest.of(0, UNBOUNDED_PAGE_SIZE);
         }
 
         if (from < 0 || size < 0) {
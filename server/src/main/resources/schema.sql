@@ -3,6 +3,7 @@ DROP TABLE IF EXISTS items CASCADE;
 DROP TABLE IF EXISTS bookings CASCADE;
 DROP TABLE IF EXISTS comments CASCADE;
 DROP TABLE IF EXISTS item_requests CASCADE;
+DROP TABLE IF EXISTS item_summaries CASCADE;
 
 CREATE TABLE IF NOT EXISTS users
 (
@@ -48,3 +49,31 @@ CREATE TABLE IF NOT EXISTS comments
     author_id BIGINT REFERENCES users (id) ON DELETE CASCADE,
     created   TIMESTAMP WITHOUT TIME ZONE DEFAULT NOW() NOT NULL
 );
+
+CREATE TABLE IF NOT EXISTS item_summaries
+(
+    item_id         BIGINT PRIMARY KEY REFERENCES items (id) ON DELETE CASCADE,
+    approved_count  INT NOT NULL DEFAULT 0,
+    waiting_count   INT NOT NULL DEFAULT 0,
+    comment_count   INT NOT NULL DEFAULT 0,
+    last_booking_id BIGINT,
+    last_booker_id  BIGINT,
+    last_start      TIMESTAMP WITHOUT TIME ZONE,
+    last_end        TIMESTAMP WITHOUT TIME ZONE,
+    last_status     VARCHAR(15),
+    next_booking_id BIGINT,
+    next_booker_id  BIGINT,
+    next_start      TIMESTAMP WITHOUT TIME ZONE,
+    next_end        TIMESTAMP WITHOUT TIME ZONE,
+    next_status     VARCHAR(15),
+    valid_until     TIMESTAMP WITHOUT TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_BOOKER_STATUS_START ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX IF NOT EXISTS IDX_BOOKINGS_ITEM_STATUS_END ON bookings (item_id, status, end_date);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_OWNER ON items (owner_id, id);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_SUMMARIES_VALID_UNTIL ON item_summaries (valid_until);
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_REQUEST ON items (request_id);
+CREATE INDEX IF NOT EXISTS IDX_COMMENTS_ITEM_CREATED ON comments (item_id, created DESC);
+CREATE INDEX IF NOT EXISTS IDX_ITEM_REQUESTS_REQUESTOR_CREATED ON item_requests (requestor_id, created DESC);
@@ -0,0 +1,6 @@
+CREATE EXTENSION IF NOT EXISTS btree_gist;
+
+ALTER TABLE bookings
+    ADD CONSTRAINT EXCL_BOOKINGS_ITEM_PERIOD
+        EXCLUDE USING GIST (item_id WITH =, tsrange(start_date, end_date) WITH &&)
+        WHERE (status IN ('WAITING', 'APPROVED'));
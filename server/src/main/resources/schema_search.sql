@@ -0,0 +1,9 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE items
+    ADD COLUMN IF NOT EXISTS search_vector TSVECTOR
+        GENERATED ALWAYS AS (to_tsvector('simple', name || ' ' || description)) STORED;
+
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_SEARCH_VECTOR ON items USING GIN (search_vector) WHERE available;
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_NAME_TRGM ON items USING GIN (UPPER(name) gin_trgm_ops) WHERE available;
+CREATE INDEX IF NOT EXISTS IDX_ITEMS_DESCRIPTION_TRGM ON items USING GIN (UPPER(description) gin_trgm_ops) WHERE available;
@@ -0,0 +1,121 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.comments.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class SchemaIndexTest {
+    private static final int USERS = 20;
+    private static final int ITEMS_PER_USER = 5;
+    private static final int BOOKINGS_PER_ITEM = 4;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        User[] users = new User[USERS];
+
+        for (int u = 0; u < USERS; u++) {
+            users[u] = entityManager.persist(User.builder()
+                    .name("user" + u)
+                    .email("user" + u + "@mail.com")
+                    .build());
+            entityManager.persist(ItemRequest.builder()
+                    .description("request" + u)
+                    .requestorId(users[u].getId())
+                    .created(now.minusDays(u))
+                    .build());
+        }
+
+        for (int u = 0; u < USERS; u++) {
+            for (int i = 0; i < ITEMS_PER_USER; i++) {
+                Item item = entityManager.persist(Item.builder()
+                        .name("item" + u + "-" + i)
+                        .description("description")
+                        .available(true)
+                        .owner(users[u])
+                        .build());
+                entityManager.persist(Comment.builder()
+                        .text("comment")
+                        .item(item)
+                        .author(users[(u + 1) % USERS])
+                        .created(Instant.now())
+                        .build());
+
+                for (int b = 0; b < BOOKINGS_PER_ITEM; b++) {
+                    entityManager.persist(Booking.builder()
+                            .item(item)
+                            .booker(users[(u + b + 1) % USERS])
+                            .start(now.plusDays(b - 2))
+                            .end(now.plusDays(b - 1))
+                            .status(BookingStatus.values()[b % BookingStatus.values().length])
+                            .build());
+                }
+            }
+        }
+
+        entityManager.flush();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "SELECT * FROM bookings WHERE booker_id = 3 ORDER BY start_date DESC",
+            "SELECT * FROM bookings WHERE booker_id = 3 AND status = 'WAITING' ORDER BY start_date DESC",
+            "SELECT * FROM bookings WHERE item_id = 3 AND status = 'APPROVED' AND end_date < NOW()",
+            "SELECT b.* FROM bookings b JOIN items i ON i.id = b.item_id WHERE i.owner_id = 3 "
+                    + "ORDER BY b.start_date DESC",
+            "SELECT * FROM items WHERE owner_id = 3 ORDER BY id",
+            "SELECT * FROM items WHERE request_id IN (1, 2)",
+            "SELECT * FROM comments WHERE item_id = 3 ORDER BY created DESC",
+            "SELECT * FROM item_requests WHERE requestor_id = 3 ORDER BY created DESC",
+            "SELECT item_id FROM item_summaries WHERE valid_until <= NOW() ORDER BY valid_until"
+    })
+    void explain_whenRepositoryQueryShape_thenPlanHasNoTableScan(String query) {
+        String plan = String.valueOf(entityManager.getEntityManager()
+                .createNativeQuery("EXPLAIN " + query)
+                .getSingleResult());
+
+        assertThat(plan).doesNotContainIgnoringCase("tableScan");
+    }
+
+    /**
+     * H2 indexes every foreign key on its own and may prefer those in plans, so the
+     * composite indexes the PostgreSQL planner relies on are checked by name.
+     */
+    @Test
+    void schema_whenInitialized_thenCompositeIndexesExist() {
+        @SuppressWarnings("unchecked")
+        List<Object> indexes = entityManager.getEntityManager()
+                .createNativeQuery("SELECT INDEX_NAME FROM INFORMATION_SCHEMA.INDEXES")
+                .getResultList();
+
+        assertThat(indexes).contains(
+                "IDX_BOOKINGS_BOOKER_START",
+                "IDX_BOOKINGS_BOOKER_STATUS_START",
+                "IDX_BOOKINGS_ITEM_STATUS_END",
+                "IDX_ITEMS_OWNER",
+                "IDX_ITEMS_REQUEST",
+                "IDX_COMMENTS_ITEM_CREATED",
+                "IDX_ITEM_REQUESTS_REQUESTOR_CREATED",
+                "IDX_ITEM_SUMMARIES_VALID_UNTIL");
+    }
+}
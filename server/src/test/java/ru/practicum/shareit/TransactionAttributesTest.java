@@ -0,0 +1,67 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.annotation.AnnotationTransactionAttributeSource;
+import org.springframework.transaction.interceptor.TransactionAttribute;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.service.ItemServiceImpl;
+import ru.practicum.shareit.request.service.ItemRequestServiceImpl;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionAttributesTest {
+    private final AnnotationTransactionAttributeSource attributeSource = new AnnotationTransactionAttributeSource();
+
+    @Test
+    void queryMethods_whenInvoked_thenReadOnlyTransaction() {
+        assertReadOnly(BookingServiceImpl.class, "getUserBookings");
+        assertReadOnly(BookingServiceImpl.class, "getOwnerBookingsAfter");
+        assertReadOnly(BookingServiceImpl.class, "getBookingByIdAndBooker");
+        assertReadOnly(ItemServiceImpl.class, "findByText");
+        assertReadOnly(ItemServiceImpl.class, "findAllItemByUserId");
+        assertReadOnly(ItemServiceImpl.class, "getDashboard");
+        assertReadOnly(ItemRequestServiceImpl.class, "getAllItemRequests");
+        assertReadOnly(UserServiceImpl.class, "findAll");
+    }
+
+    @Test
+    void writeMethods_whenInvoked_thenReadWriteTransaction() {
+        assertReadWrite(BookingServiceImpl.class, "create");
+        assertReadWrite(BookingServiceImpl.class, "createAll");
+        assertReadWrite(BookingServiceImpl.class, "patch");
+        assertReadWrite(BookingServiceImpl.class, "patchAll");
+        assertReadWrite(BookingServiceImpl.class, "deleteBookingById");
+        assertReadWrite(ItemServiceImpl.class, "save");
+        assertReadWrite(ItemServiceImpl.class, "patch");
+        assertReadWrite(ItemServiceImpl.class, "delete");
+        assertReadWrite(ItemServiceImpl.class, "addComment");
+        assertReadWrite(ItemRequestServiceImpl.class, "addItemRequest");
+        assertReadWrite(UserServiceImpl.class, "update");
+        assertReadWrite(UserServiceImpl.class, "delete");
+    }
+
+    private void assertReadOnly(Class<?> type, String methodName) {
+        assertTrue(attribute(type, methodName).isReadOnly(), methodName);
+    }
+
+    private void assertReadWrite(Class<?> type, String methodName) {
+        assertFalse(attribute(type, methodName).isReadOnly(), methodName);
+    }
+
+    private TransactionAttribute attribute(Class<?> type, String methodName) {
+        Method method = Arrays.stream(type.getDeclaredMethods())
+                .filter(m -> m.getName().equals(methodName))
+                .findFirst()
+                .orElseThrow();
+        TransactionAttribute attribute = attributeSource.getTransactionAttribute(method, type);
+        assertNotNull(attribute, methodName);
+
+        return attribute;
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadConfigTest {
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_whenBeforeJava21_thenFailsFast() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThrows(IllegalStateException.class, VirtualThreadConfig::newVirtualThreadPerTaskExecutor);
+    }
+
+    @Test
+    void newVirtualThreadPerTaskExecutor_whenJava21_thenRunsOnVirtualThreads() throws Exception {
+        assumeTrue(Runtime.version().feature() >= 21);
+        ExecutorService executor = VirtualThreadConfig.newVirtualThreadPerTaskExecutor();
+
+        Object isVirtual = executor.submit(() -> Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+                .get(5, TimeUnit.SECONDS);
+
+        assertTrue((Boolean) isVirtual);
+        executor.shutdown();
+    }
+}
@@ -11,11 +11,13 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exceptions.BookingParameterException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.model.Item;
@@ -26,10 +28,13 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {BookingController.class})
@@ -93,6 +98,55 @@ class BookingControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void addBookings_whenNotAtomic_StatusOkWithResults() {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).booking(responseDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Предмет недоступен").build());
+        when(bookingService.createAll(eq(1L), anyList(), eq(false))).thenReturn(results);
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("atomic", "false")
+                        .content(objectMapper.writeValueAsString(List.of(createDto, createDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)))
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void addBookings_whenAtomic_StatusCreated() {
+        when(bookingService.createAll(eq(1L), anyList(), eq(true))).thenReturn(List.of(
+                BookingBatchResultDto.builder().index(0).booking(responseDto).build()));
+
+        mockMvc.perform(post("/bookings/batch")
+                        .header(HEADER_USER_ID, 1L)
+                        .content(objectMapper.writeValueAsString(List.of(createDto)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isCreated())
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void addBooking_whenPeriodOverlaps_StatusConflict() {
+        when(bookingService.create(anyLong(), any()))
+                .thenThrow(new BookingOverlapException("Предмет уже забронирован на это время"));
+
+        mockMvc.perform(post("/bookings")
+                        .header(HEADER_USER_ID, 1L)
+                        .content(objectMapper.writeValueAsString(createDto))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isConflict())
+                .andDo(print())
+                .andReturn();
+    }
+
     @Test
     @SneakyThrows
     void addBooking_whenInvokeWithoutItemId_StatusBadRequest() {
@@ -147,6 +201,25 @@ class BookingControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void patchBookings_whenInvoked_StatusOkWithResults() {
+        List<BookingBatchResultDto> results = List.of(
+                BookingBatchResultDto.builder().index(0).booking(bookingDto).build(),
+                BookingBatchResultDto.builder().index(1).error("Бронь не найдена").build());
+        when(bookingService.patchAll(eq(List.of(1L, 999L)), eq(1L), eq(true))).thenReturn(results);
+
+        mockMvc.perform(patch("/bookings/batch")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("approved", "true")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 999L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(results)))
+                .andDo(print())
+                .andReturn();
+    }
+
     @Test
     @SneakyThrows
     void patchBooking_whenInvokeFalse_ThenStatusOk() {
@@ -274,6 +347,78 @@ class BookingControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void getUserBookings_whenCountRequested_thenTotalCountHeader() {
+        when(bookingService.getUserBookings(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of());
+        when(bookingService.countUserBookings(eq(1L), eq("ALL"))).thenReturn(42L);
+        mockMvc.perform(get("/bookings")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("count", "true")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "42"))
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserBookings_whenCountNotRequested_thenNoCountQuery() {
+        when(bookingService.getUserBookings(anyLong(), anyString(), anyInt(), anyInt())).thenReturn(List.of());
+        mockMvc.perform(get("/bookings")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("from", "0")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Total-Count"))
+                .andDo(print())
+                .andReturn();
+        verify(bookingService, never()).countUserBookings(anyLong(), anyString());
+    }
+
+    @Test
+    @SneakyThrows
+    void getUserBookings_whenCursorGiven_thenKeysetModeUsed() {
+        List<BookingDto> bookingDtoList = getBookingDtos();
+
+        when(bookingService.getUserBookingsAfter(eq(1L), eq("ALL"), eq(LocalDateTime.of(2023, 1, 1, 10, 0)),
+                eq(5L), eq(10)))
+                .thenReturn(bookingDtoList);
+        mockMvc.perform(get("/bookings")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("afterStart", "2023-01-01T10:00:00")
+                        .param("afterId", "5")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(bookingDtoList)))
+                .andDo(print())
+                .andReturn();
+        verify(bookingService, never()).getUserBookings(anyLong(), anyString(), any(), any());
+    }
+
+    @Test
+    @SneakyThrows
+    void getOwnerBookings_whenCursorGiven_thenKeysetModeUsed() {
+        when(bookingService.getOwnerBookingsAfter(eq(1L), eq("ALL"), eq(LocalDateTime.of(2023, 1, 1, 10, 0)),
+                eq(5L), any()))
+                .thenReturn(List.of());
+        mockMvc.perform(get("/bookings/owner")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("afterStart", "2023-01-01T10:00:00")
+                        .param("afterId", "5")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[]"))
+                .andDo(print())
+                .andReturn();
+        verify(bookingService, never()).getOwnerBookings(anyLong(), anyString(), any(), any());
+    }
+
     @Test
     @SneakyThrows
     void getOwnerBookings_whenInvoked1Booking_thenStatusOk() {
@@ -0,0 +1,265 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.util.PaginationUtil;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+class BookingRepositoryTest {
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User owner;
+    private User booker;
+    private Item firstItem;
+    private Item secondItem;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        owner = entityManager.persist(User.builder()
+                .name("owner")
+                .email("owner@mail.com")
+                .build());
+        booker = entityManager.persist(User.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build());
+
+        firstItem = entityManager.persist(Item.builder()
+                .name("Item 1")
+                .description("Description 1")
+                .available(true)
+                .owner(owner)
+                .build());
+        secondItem = entityManager.persist(Item.builder()
+                .name("Item 2")
+                .description("Description 2")
+                .available(true)
+                .owner(owner)
+                .build());
+
+        persistBooking(firstItem, booker, now.minusDays(10), now.minusDays(9));
+        persistBooking(firstItem, booker, now.minusDays(5), now.minusDays(4));
+        persistBooking(firstItem, booker, now.plusDays(3), now.plusDays(4));
+        persistBooking(firstItem, booker, now.plusDays(7), now.plusDays(8));
+        persistBooking(secondItem, booker, now.plusDays(1), now.plusDays(2));
+    }
+
+    @Test
+    void findLastAndNextByItemIds_whenInvoked_thenOnlyNearestBookingsPerItem() {
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIds(
+                List.of(firstItem.getId(), secondItem.getId()), now);
+
+        assertEquals(3, bookings.size());
+        assertEquals(Set.of(now.minusDays(4), now.plusDays(3)), bookings.stream()
+                .filter(booking -> booking.getItem().getId().equals(firstItem.getId()))
+                .map(booking -> booking.getStart().isAfter(now) ? booking.getStart() : booking.getEnd())
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void findLastAndNextByItemIds_whenItemsNotExist_thenListEmpty() {
+        List<Booking> bookings = bookingRepository.findLastAndNextByItemIds(List.of(0L), now);
+
+        assertEquals(0, bookings.size());
+    }
+
+    @Test
+    void findBookerBookingsAfter_whenCursorGiven_thenSeekPastCursorInStartIdOrder() {
+        List<BookingRowDto> all = bookingRepository.findBookerBookingsAfter(booker.getId(), BookingState.ALL, now,
+                now.plusYears(100), Long.MAX_VALUE, 10);
+        BookingRowDto second = all.get(1);
+
+        List<BookingRowDto> page = bookingRepository.findBookerBookingsAfter(booker.getId(), BookingState.ALL, now,
+                second.getStart(), second.getId(), 2);
+
+        assertEquals(5, all.size());
+        assertEquals(List.of(all.get(2).getId(), all.get(3).getId()), page.stream()
+                .map(BookingRowDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void findOwnerBookingsAfter_whenStateFuture_thenOnlyFutureBookingsOfOwner() {
+        List<BookingRowDto> page = bookingRepository.findOwnerBookingsAfter(owner.getId(), BookingState.FUTURE, now,
+                now.plusYears(100), Long.MAX_VALUE, 10);
+
+        assertEquals(3, page.size());
+        assertEquals(now.plusDays(7), page.get(0).getStart());
+        assertEquals(now.plusDays(1), page.get(2).getStart());
+    }
+
+    @Test
+    void findOwnerBookings_whenInvoked_thenRowCarriesItemOwnerAndBookerColumns() {
+        BookingRowDto row = bookingRepository.findOwnerBookings(owner.getId(), BookingState.FUTURE, now,
+                PaginationUtil.getPaginationWithoutSort(0, 1)).getContent().get(0);
+
+        assertEquals(firstItem.getId(), row.getItemId());
+        assertEquals("Item 1", row.getItemName());
+        assertTrue(row.getItemAvailable());
+        assertEquals(owner.getId(), row.getOwnerId());
+        assertEquals("owner@mail.com", row.getOwnerEmail());
+        assertEquals(booker.getId(), row.getBookerId());
+        assertEquals("booker@mail.com", row.getBookerEmail());
+    }
+
+    @Test
+    void findOwnerBookingsAfter_whenOwnerHasNoItems_thenListEmpty() {
+        List<BookingRowDto> page = bookingRepository.findOwnerBookingsAfter(booker.getId(), BookingState.ALL, now,
+                now.plusYears(100), Long.MAX_VALUE, 10);
+
+        assertEquals(0, page.size());
+    }
+
+    @Test
+    void countOwnerBookings_whenStatePast_thenCountOnlyEndedBookings() {
+        assertEquals(2, bookingRepository.countOwnerBookings(owner.getId(), BookingState.PAST, now));
+    }
+
+    @Test
+    void countBookerBookings_whenStateAll_thenCountAllBookings() {
+        assertEquals(5, bookingRepository.countBookerBookings(booker.getId(), BookingState.ALL, now));
+    }
+
+    @Test
+    void findBookerBookings_whenMoreBookingsThanSize_thenSliceHasNext() {
+        Slice<BookingRowDto> slice = bookingRepository.findBookerBookings(booker.getId(), BookingState.ALL, now,
+                PaginationUtil.getPaginationWithoutSort(0, 2));
+
+        assertEquals(2, slice.getContent().size());
+        assertEquals(now.plusDays(7), slice.getContent().get(0).getStart());
+        assertTrue(slice.hasNext());
+    }
+
+    @Test
+    void findBookerBookings_whenLastPage_thenSliceHasNoNext() {
+        Slice<BookingRowDto> slice = bookingRepository.findBookerBookings(booker.getId(), BookingState.ALL, now,
+                PaginationUtil.getPaginationWithoutSort(4, 2));
+
+        assertEquals(1, slice.getContent().size());
+        assertEquals(now.minusDays(10), slice.getContent().get(0).getStart());
+        assertFalse(slice.hasNext());
+    }
+
+    @Test
+    void findOwnerBookings_whenStateFuture_thenOnlyFutureBookingsOfOwner() {
+        Slice<BookingRowDto> slice = bookingRepository.findOwnerBookings(owner.getId(), BookingState.FUTURE, now,
+                PaginationUtil.getPaginationWithoutSort(null, null));
+
+        assertEquals(List.of(now.plusDays(7), now.plusDays(3), now.plusDays(1)), slice.getContent().stream()
+                .map(BookingRowDto::getStart)
+                .collect(Collectors.toList()));
+        assertTrue(bookingRepository.findOwnerBookings(booker.getId(), BookingState.FUTURE, now,
+                PaginationUtil.getPaginationWithoutSort(null, null)).isEmpty());
+    }
+
+    @Test
+    void findBookerBookings_whenStateRejected_thenOnlyRejectedBookings() {
+        entityManager.persist(Booking.builder().item(secondItem).booker(booker)
+                .start(now.plusDays(20)).end(now.plusDays(21)).status(BookingStatus.REJECTED).build());
+
+        Slice<BookingRowDto> slice = bookingRepository.findBookerBookings(booker.getId(), BookingState.REJECTED, now,
+                PaginationUtil.getPaginationWithoutSort(0, 10));
+
+        assertEquals(1, slice.getContent().size());
+        assertEquals(BookingStatus.REJECTED, slice.getContent().get(0).getStatus());
+    }
+
+    @Test
+    void findAllByItemIdAndStatusIn_whenInvoked_thenOnlyBookingsOfItem() {
+        List<Booking> bookings = bookingRepository.findAllByItemIdAndStatusIn(firstItem.getId(),
+                Set.of(BookingStatus.WAITING, BookingStatus.APPROVED));
+
+        assertEquals(4, bookings.size());
+        assertTrue(bookings.stream().allMatch(booking -> booking.getItem().getId().equals(firstItem.getId())));
+    }
+
+    @Test
+    void findAllByItemIdAndStatusIn_whenStatusNotMatched_thenListEmpty() {
+        assertTrue(bookingRepository.findAllByItemIdAndStatusIn(firstItem.getId(),
+                Set.of(BookingStatus.WAITING)).isEmpty());
+    }
+
+    @Test
+    void insertAll_whenInvoked_thenIdsAssignedAndRowsStored() {
+        List<Booking> bookings = List.of(
+                Booking.builder().item(secondItem).booker(booker).start(now.plusDays(10)).end(now.plusDays(11))
+                        .status(BookingStatus.WAITING).build(),
+                Booking.builder().item(secondItem).booker(booker).start(now.plusDays(12)).end(now.plusDays(13))
+                        .status(BookingStatus.WAITING).build());
+
+        bookingRepository.insertAll(bookings);
+
+        assertTrue(bookings.stream().allMatch(booking -> booking.getId() != null));
+        assertEquals(now.plusDays(12), bookingRepository.findById(bookings.get(1).getId()).orElseThrow().getStart());
+        assertEquals(3, bookingRepository.findAllByItemIdAndStatusIn(secondItem.getId(),
+                Set.of(BookingStatus.WAITING, BookingStatus.APPROVED)).size());
+    }
+
+    @Test
+    void updateWaitingStatus_whenInvoked_thenOnlyWaitingBookingsChanged() {
+        Booking waiting = entityManager.persist(Booking.builder().item(secondItem).booker(booker)
+                .start(now.plusDays(10)).end(now.plusDays(11)).status(BookingStatus.WAITING).build());
+        Long approvedId = bookingRepository.findAllByItemIdAndStatusIn(secondItem.getId(),
+                Set.of(BookingStatus.APPROVED)).get(0).getId();
+
+        int updated = bookingRepository.updateWaitingStatus(List.of(waiting.getId(), approvedId),
+                BookingStatus.REJECTED);
+
+        assertEquals(1, updated);
+        assertEquals(BookingStatus.REJECTED, bookingRepository.findById(waiting.getId()).orElseThrow().getStatus());
+        assertEquals(BookingStatus.APPROVED, bookingRepository.findById(approvedId).orElseThrow().getStatus());
+        assertEquals(2, bookingRepository.findAllFullByIdIn(List.of(waiting.getId(), approvedId)).size());
+    }
+
+    @Test
+    void updateWaitingStatusByOwner_whenNotOwnerOrNotWaiting_thenNothingUpdated() {
+        Booking waiting = entityManager.persist(Booking.builder().item(secondItem).booker(booker)
+                .start(now.plusDays(10)).end(now.plusDays(11)).status(BookingStatus.WAITING).build());
+
+        assertEquals(0, bookingRepository.updateWaitingStatusByOwner(waiting.getId(), booker.getId(),
+                BookingStatus.APPROVED));
+        assertEquals(1, bookingRepository.updateWaitingStatusByOwner(waiting.getId(), owner.getId(),
+                BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateWaitingStatusByOwner(waiting.getId(), owner.getId(),
+                BookingStatus.REJECTED));
+        assertEquals(BookingStatus.APPROVED, bookingRepository.getBookingFull(waiting.getId()).orElseThrow()
+                .getStatus());
+    }
+
+    private void persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        entityManager.persist(Booking.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(end)
+                .status(BookingStatus.APPROVED)
+                .build());
+    }
+}
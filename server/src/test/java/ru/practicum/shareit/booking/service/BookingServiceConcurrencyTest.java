@@ -0,0 +1,98 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class BookingServiceConcurrencyTest {
+    private static final int THREADS = 32;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void create_whenManyThreadsBookSameItem_thenOnlyOneBookingPerPeriod() throws Exception {
+        User owner = userRepository.save(User.builder().name("owner").email("owner@stress.ru").build());
+        Item item = itemRepository.save(Item.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .owner(owner)
+                .build());
+        List<Long> bookerIds = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookerIds.add(userRepository.save(User.builder()
+                    .name("booker" + i)
+                    .email("booker" + i + "@stress.ru")
+                    .build()).getId());
+        }
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch ready = new CountDownLatch(THREADS);
+        CountDownLatch go = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            Long bookerId = bookerIds.get(i);
+            // Half of the requests ask for the same day, the rest for shifted but still overlapping periods.
+            LocalDateTime bookingStart = start.plusHours(i % 2 == 0 ? 0 : i % 12);
+            futures.add(executor.submit(() -> {
+                ready.countDown();
+                go.await();
+                try {
+                    bookingService.create(bookerId, BookingCreateDto.builder()
+                            .itemId(item.getId())
+                            .start(bookingStart)
+                            .end(bookingStart.plusDays(1))
+                            .build());
+                    created.incrementAndGet();
+                } catch (BookingOverlapException e) {
+                    rejected.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        ready.await();
+        go.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, created.get());
+        assertEquals(THREADS - 1, rejected.get());
+        assertEquals(1, bookingRepository.countOwnerBookings(owner.getId(), BookingState.ALL, LocalDateTime.now()));
+    }
+}
@@ -1,34 +1,51 @@
 package ru.practicum.shareit.booking.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingBatchResultDto;
 import ru.practicum.shareit.booking.dto.BookingCreateDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingRowDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.comments.repositories.CommentRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.repositories.ItemSummaryRepository;
+import ru.practicum.shareit.item.service.ItemResponseCache;
+import ru.practicum.shareit.item.service.ItemSummaries;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.sql.SQLException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class BookingServiceImplTest {
     public static final long TEST_ID = 1L;
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
     private BookingService bookingService;
     @Mock
     private BookingRepository bookingRepository;
@@ -36,8 +53,11 @@ class BookingServiceImplTest {
     private UserRepository userRepository;
     @Mock
     private ItemRepository itemRepository;
+    @Mock
+    private ItemSummaryRepository itemSummaryRepository;
     private BookingDto bookingDto;
     private Booking booking;
+    private BookingRowDto bookingRow;
     private Item item;
     private User user;
 
@@ -45,7 +65,12 @@ class BookingServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository);
+        bookingService = new BookingServiceImpl(bookingRepository, userRepository, itemRepository,
+                new ItemResponseCache(100, new SimpleMeterRegistry()),
+                new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry()), new ItemBookingLocks(16),
+                new ItemBookingIndex(bookingRepository, passThroughReads, 100, new SimpleMeterRegistry()),
+                new ItemSummaries(itemSummaryRepository, bookingRepository, mock(CommentRepository.class)));
         user = User.builder().id(TEST_ID).build();
         item = Item.builder()
                 .id(TEST_ID)
@@ -69,6 +94,10 @@ class BookingServiceImplTest {
                 .item(item)
                 .build();
 
+        bookingRow = new BookingRowDto(TEST_ID, booking.getStart(), booking.getEnd(), BookingStatus.WAITING,
+                TEST_ID, "name", "description", true, null, TEST_ID, "name", "email@mail.ru",
+                TEST_ID, "name", "email@mail.ru");
+
         bookingCreateDto = BookingCreateDto.builder()
                 .itemId(TEST_ID)
                 .end(LocalDateTime.now().plusDays(1))
@@ -314,6 +343,136 @@ class BookingServiceImplTest {
         verify(userRepository, times(1)).findById(TEST_ID);
     }
 
+    @Test
+    void create_whenPeriodOverlaps_thenThrowBookingOverlapException() {
+        Item createItem = Item.builder()
+                .id(TEST_ID)
+                .available(true)
+                .owner(User.builder().id(2L).build())
+                .build();
+
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(createItem));
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(TEST_ID), anyCollection())).thenReturn(List.of(
+                Booking.builder()
+                        .id(2L)
+                        .item(createItem)
+                        .booker(User.builder().id(3L).build())
+                        .start(bookingCreateDto.getStart().minusHours(1))
+                        .end(bookingCreateDto.getStart().plusHours(1))
+                        .status(BookingStatus.WAITING)
+                        .build()));
+        BookingOverlapException exception = assertThrows(BookingOverlapException.class,
+                () -> bookingService.create(TEST_ID, bookingCreateDto));
+
+        assertEquals("Предмет уже забронирован на это время", exception.getMessage());
+        verify(bookingRepository, times(0)).save(any());
+    }
+
+    @Test
+    void createAll_whenAtomicAndAllValid_thenOneInsertBatch() {
+        Item createItem = Item.builder().id(TEST_ID).available(true).owner(User.builder().id(2L).build()).build();
+        Item secondItem = Item.builder().id(3L).available(true).owner(User.builder().id(2L).build()).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateDto> batch = List.of(
+                BookingCreateDto.builder().itemId(TEST_ID).start(start).end(start.plusDays(1)).build(),
+                BookingCreateDto.builder().itemId(3L).start(start).end(start.plusDays(1)).build());
+
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdsFull(anyCollection())).thenReturn(List.of(createItem, secondItem));
+        assignIdsOnInsert();
+
+        List<BookingBatchResultDto> result = bookingService.createAll(TEST_ID, batch, true);
+
+        assertEquals(List.of(10L, 11L), result.stream()
+                .map(r -> r.getBooking().getId())
+                .collect(Collectors.toList()));
+        assertEquals(BookingStatus.WAITING, result.get(0).getBooking().getStatus());
+        verify(itemRepository, times(1)).findAllByIdsFull(anyCollection());
+        verify(userRepository, times(1)).findById(TEST_ID);
+        verify(bookingRepository, times(1)).insertAll(anyList());
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void createAll_whenAtomicAndEntryInvalid_thenThrowAndInsertNothing() {
+        Item unavailable = Item.builder().id(TEST_ID).available(false).owner(User.builder().id(2L).build()).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdsFull(anyCollection())).thenReturn(List.of(unavailable));
+
+        BookingParameterException exception = assertThrows(BookingParameterException.class,
+                () -> bookingService.createAll(TEST_ID, List.of(
+                        BookingCreateDto.builder().itemId(TEST_ID).start(start).end(start.plusDays(1)).build()), true));
+
+        assertEquals("Предмет недоступен", exception.getMessage());
+        verify(bookingRepository, never()).insertAll(anyList());
+    }
+
+    @Test
+    void createAll_whenNotAtomic_thenRejectedEntriesReported() {
+        Item createItem = Item.builder().id(TEST_ID).available(true).owner(User.builder().id(2L).build()).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        List<BookingCreateDto> batch = List.of(
+                BookingCreateDto.builder().itemId(TEST_ID).start(start).end(start.plusDays(2)).build(),
+                BookingCreateDto.builder().itemId(TEST_ID).start(start.plusDays(1)).end(start.plusDays(3)).build(),
+                BookingCreateDto.builder().itemId(99L).start(start).end(start.plusDays(1)).build(),
+                BookingCreateDto.builder().itemId(TEST_ID).start(start.plusDays(3)).end(start.plusDays(2)).build());
+
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(itemRepository.findAllByIdsFull(anyCollection())).thenReturn(List.of(createItem));
+        assignIdsOnInsert();
+
+        List<BookingBatchResultDto> result = bookingService.createAll(TEST_ID, batch, false);
+
+        assertEquals(4, result.size());
+        assertEquals(null, result.get(0).getError());
+        assertEquals("Предмет уже забронирован на это время", result.get(1).getError());
+        assertEquals("Такой предмет не существует", result.get(2).getError());
+        assertEquals("Неправильное время бронирования", result.get(3).getError());
+        assertEquals(null, result.get(1).getBooking());
+        verify(bookingRepository, times(1)).insertAll(argThat(bookings -> bookings.size() == 1));
+    }
+
+    @Test
+    void createAll_whenBatchEmpty_thenThrowBookingParameterException() {
+        assertThrows(BookingParameterException.class, () -> bookingService.createAll(TEST_ID, List.of(), true));
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void create_whenExclusionConstraintViolated_thenThrowBookingOverlapException() {
+        Item createItem = Item.builder()
+                .id(TEST_ID)
+                .available(true)
+                .owner(User.builder().id(2L).build())
+                .build();
+
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(createItem));
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("overlap",
+                new SQLException("conflicting key value violates exclusion constraint", "23P01")));
+
+        assertThrows(BookingOverlapException.class, () -> bookingService.create(TEST_ID, bookingCreateDto));
+    }
+
+    @Test
+    void create_whenOtherConstraintViolated_thenRethrow() {
+        Item createItem = Item.builder()
+                .id(TEST_ID)
+                .available(true)
+                .owner(User.builder().id(2L).build())
+                .build();
+
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(createItem));
+        when(userRepository.findById(TEST_ID)).thenReturn(Optional.of(user));
+        when(bookingRepository.save(any())).thenThrow(new DataIntegrityViolationException("fk",
+                new SQLException("violates foreign key constraint", "23503")));
+
+        assertThrows(DataIntegrityViolationException.class, () -> bookingService.create(TEST_ID, bookingCreateDto));
+    }
+
     @Test
     void patch_whenApprovedFalse_thenReturnPatchBooking() {
         User userPatch = User.builder().id(4L).email("email@email.com").name("name").build();
@@ -323,15 +482,6 @@ class BookingServiceImplTest {
                         .email("email2@email.com").name("name2")
                         .build())
                 .build();
-        Booking bookingPatch = Booking.builder()
-                .id(TEST_ID)
-                .booker(userPatch)
-                .status(BookingStatus.WAITING)
-                .end(LocalDateTime.now().plusDays(1))
-                .start(LocalDateTime.now())
-                .item(itemPatch)
-                .build();
-
         Booking bookingSaved = Booking.builder()
                 .id(TEST_ID)
                 .booker(userPatch)
@@ -343,15 +493,16 @@ class BookingServiceImplTest {
 
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.getBookingFull(anyLong())).thenReturn(Optional.of(bookingPatch));
-        when(bookingRepository.save(any())).thenReturn(bookingSaved);
+        when(bookingRepository.updateWaitingStatusByOwner(TEST_ID, TEST_ID, BookingStatus.REJECTED)).thenReturn(1);
+        when(bookingRepository.getBookingFull(anyLong())).thenReturn(Optional.of(bookingSaved));
 
         BookingDto result = bookingService.patch(TEST_ID, TEST_ID, Boolean.FALSE);
 
         assertEquals(BookingStatus.REJECTED, result.getStatus());
         verify(userRepository, times(1)).existsById(any());
+        verify(bookingRepository, times(1)).updateWaitingStatusByOwner(anyLong(), anyLong(), any());
         verify(bookingRepository, times(1)).getBookingFull(any());
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -363,15 +514,6 @@ class BookingServiceImplTest {
                         .email("email2@email.com").name("name2")
                         .build())
                 .build();
-        Booking bookingPatch = Booking.builder()
-                .id(TEST_ID)
-                .booker(userPatch)
-                .status(BookingStatus.WAITING)
-                .end(LocalDateTime.now().plusDays(1))
-                .start(LocalDateTime.now())
-                .item(itemPatch)
-                .build();
-
         Booking bookingSaved = Booking.builder()
                 .id(TEST_ID)
                 .booker(userPatch)
@@ -383,15 +525,16 @@ class BookingServiceImplTest {
 
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.getBookingFull(anyLong())).thenReturn(Optional.of(bookingPatch));
-        when(bookingRepository.save(any())).thenReturn(bookingSaved);
+        when(bookingRepository.updateWaitingStatusByOwner(TEST_ID, TEST_ID, BookingStatus.APPROVED)).thenReturn(1);
+        when(bookingRepository.getBookingFull(anyLong())).thenReturn(Optional.of(bookingSaved));
 
         BookingDto result = bookingService.patch(TEST_ID, TEST_ID, Boolean.TRUE);
 
         assertEquals(BookingStatus.APPROVED, result.getStatus());
         verify(userRepository, times(1)).existsById(any());
+        verify(bookingRepository, times(1)).updateWaitingStatusByOwner(anyLong(), anyLong(), any());
         verify(bookingRepository, times(1)).getBookingFull(any());
-        verify(bookingRepository, times(1)).save(any());
+        verify(bookingRepository, never()).save(any());
     }
 
     @Test
@@ -464,6 +607,26 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(0)).save(any());
     }
 
+    @Test
+    void patch_whenBookingChangedConcurrently_thenThrowBookingParameterException() {
+        Booking bookingPatch = Booking.builder()
+                .id(TEST_ID)
+                .booker(User.builder().id(4L).build())
+                .status(BookingStatus.WAITING)
+                .end(LocalDateTime.now().plusDays(1))
+                .start(LocalDateTime.now())
+                .item(item)
+                .build();
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.updateWaitingStatusByOwner(anyLong(), anyLong(), any())).thenReturn(0);
+        when(bookingRepository.getBookingFull(anyLong())).thenReturn(Optional.of(bookingPatch));
+        BookingParameterException exception = assertThrows(BookingParameterException.class,
+                () -> bookingService.patch(TEST_ID, TEST_ID, Boolean.TRUE));
+
+        assertEquals("Бронь не находится в состоянии ожидания", exception.getMessage());
+    }
+
     @Test
     void patch_whenBookingNotFound_thenThrowBookingNotFoundException() {
         when(userRepository.existsById(anyLong())).thenReturn(true);
@@ -478,24 +641,83 @@ class BookingServiceImplTest {
         verify(bookingRepository, times(0)).save(any());
     }
 
+    @Test
+    void patchAll_whenAllOwned_thenOneUpdate() {
+        User booker = User.builder().id(4L).build();
+        List<Booking> bookings = List.of(
+                Booking.builder().id(2L).booker(booker).item(item).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                Booking.builder().id(3L).booker(booker).item(item).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(3)).end(LocalDateTime.now().plusDays(4)).build());
+        when(userRepository.existsById(TEST_ID)).thenReturn(true);
+        when(bookingRepository.findAllFullByIdIn(anyCollection())).thenReturn(bookings);
+        when(bookingRepository.updateWaitingStatus(anyCollection(), eq(BookingStatus.APPROVED))).thenReturn(2);
+
+        List<BookingBatchResultDto> result = bookingService.patchAll(List.of(3L, 2L), TEST_ID, true);
+
+        assertEquals(List.of(3L, 2L), result.stream()
+                .map(entry -> entry.getBooking().getId())
+                .collect(Collectors.toList()));
+        assertTrue(result.stream().allMatch(entry -> entry.getBooking().getStatus() == BookingStatus.APPROVED));
+        verify(bookingRepository, times(1)).findAllFullByIdIn(anyCollection());
+        verify(bookingRepository, times(1)).updateWaitingStatus(anyCollection(), eq(BookingStatus.APPROVED));
+        verify(bookingRepository, never()).save(any());
+    }
+
+    @Test
+    void patchAll_whenSomeNotPatchable_thenReportedAndOthersUpdated() {
+        User booker = User.builder().id(4L).build();
+        Item foreignItem = Item.builder().id(2L).owner(booker).build();
+        List<Booking> bookings = List.of(
+                Booking.builder().id(2L).booker(booker).item(item).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build(),
+                Booking.builder().id(3L).booker(booker).item(item).status(BookingStatus.APPROVED)
+                        .start(LocalDateTime.now().plusDays(3)).end(LocalDateTime.now().plusDays(4)).build(),
+                Booking.builder().id(4L).booker(user).item(foreignItem).status(BookingStatus.WAITING)
+                        .start(LocalDateTime.now().plusDays(3)).end(LocalDateTime.now().plusDays(4)).build());
+        when(userRepository.existsById(TEST_ID)).thenReturn(true);
+        when(bookingRepository.findAllFullByIdIn(anyCollection())).thenReturn(bookings);
+        when(bookingRepository.updateWaitingStatus(eq(Set.of(2L)), eq(BookingStatus.REJECTED))).thenReturn(1);
+
+        List<BookingBatchResultDto> result = bookingService.patchAll(List.of(2L, 3L, 4L, 5L, 2L), TEST_ID, false);
+
+        assertEquals(BookingStatus.REJECTED, result.get(0).getBooking().getStatus());
+        assertEquals("Бронь не находится в состоянии ожидания", result.get(1).getError());
+        assertEquals("Не тот юзер. Нельзя редактировать бронь", result.get(2).getError());
+        assertEquals("Бронь не найдена", result.get(3).getError());
+        assertEquals("Бронь уже есть в пакете", result.get(4).getError());
+    }
+
+    @Test
+    void patchAll_whenBookingChangedConcurrently_thenThrowBookingParameterException() {
+        Booking waiting = Booking.builder().id(2L).booker(User.builder().id(4L).build()).item(item)
+                .status(BookingStatus.WAITING)
+                .start(LocalDateTime.now().plusDays(1)).end(LocalDateTime.now().plusDays(2)).build();
+        when(userRepository.existsById(TEST_ID)).thenReturn(true);
+        when(bookingRepository.findAllFullByIdIn(anyCollection())).thenReturn(List.of(waiting));
+        when(bookingRepository.updateWaitingStatus(anyCollection(), any())).thenReturn(0);
+
+        assertThrows(BookingParameterException.class, () -> bookingService.patchAll(List.of(2L), TEST_ID, true));
+    }
+
     @Test
     void deleteBookingById_whenInvoked_thenDeleted() {
-        when(bookingRepository.existsById(eq(TEST_ID))).thenReturn(true);
+        when(bookingRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(booking));
 
         bookingService.deleteBookingById(TEST_ID);
 
-        verify(bookingRepository, times(1)).existsById(anyLong());
+        verify(bookingRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(1)).deleteById(anyLong());
     }
 
     @Test
     void deleteBookingById_whenBookingNotExist_thenThrowBookingNotFoundException() {
-        when(bookingRepository.existsById(eq(TEST_ID))).thenReturn(false);
+        when(bookingRepository.findById(eq(TEST_ID))).thenReturn(Optional.empty());
         BookingNotFoundException exception = assertThrows(BookingNotFoundException.class,
                 () -> bookingService.deleteBookingById(TEST_ID));
 
         assertEquals("Брони не существует.", exception.getMessage());
-        verify(bookingRepository, times(1)).existsById(anyLong());
+        verify(bookingRepository, times(1)).findById(anyLong());
         verify(bookingRepository, times(0)).deleteById(anyLong());
     }
 
@@ -504,14 +726,14 @@ class BookingServiceImplTest {
         BookingState bookingState = BookingState.PAST;
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(bookingRepository.findByBookerIdAndEndLessThanOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+        when(bookingRepository.findBookerBookings(anyLong(), eq(BookingState.PAST), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdAndEndLessThanOrderByStartDesc(anyLong(), any(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.PAST), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -521,14 +743,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartDesc(anyLong(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findBookerBookings(anyLong(), eq(BookingState.CURRENT), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdAndStartLessThanAndEndGreaterThanOrderByStartDesc(anyLong(), any(), any(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.CURRENT), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -538,14 +760,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByBookerIdAndStartGreaterThanOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findBookerBookings(anyLong(), eq(BookingState.FUTURE), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdAndStartGreaterThanOrderByStartDesc(anyLong(), any(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.FUTURE), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -555,14 +777,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findBookerBookings(anyLong(), eq(BookingState.WAITING), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.WAITING), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -572,14 +794,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findBookerBookings(anyLong(), eq(BookingState.REJECTED), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.REJECTED), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -589,14 +811,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByBookerIdOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findBookerBookings(anyLong(), eq(BookingState.ALL), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getUserBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByBookerIdOrderByStartDesc(anyLong(), any());
+                .findBookerBookings(anyLong(), eq(BookingState.ALL), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -609,7 +831,7 @@ class BookingServiceImplTest {
 
         assertEquals("Unknown state: " + state, exception.getMessage());
         verify(bookingRepository, times(0))
-                .findByBookerIdOrderByStartDesc(anyLong(), any());
+                .findBookerBookings(anyLong(), any(), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -619,14 +841,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerAndStartLessThanAndEndGreaterThanOrderByStartDesc(anyLong(), any(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.CURRENT), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerAndStartLessThanAndEndGreaterThanOrderByStartDesc(anyLong(), any(), any(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.CURRENT), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -636,14 +858,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerAndEndLessThanOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.PAST), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerAndEndLessThanOrderByStartDesc(anyLong(), any(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.PAST), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -653,14 +875,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerAndStartGreaterThanOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.FUTURE), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerAndStartGreaterThanOrderByStartDesc(anyLong(), any(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.FUTURE), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -670,14 +892,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.WAITING), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerAndStatusOrderByStartDesc(anyLong(), any(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.WAITING), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -687,14 +909,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerAndStatusOrderByStartDesc(anyLong(), any(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.REJECTED), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerAndStatusOrderByStartDesc(anyLong(), any(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.REJECTED), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -704,14 +926,14 @@ class BookingServiceImplTest {
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(bookingRepository
-                .findByItemOwnerOrderByStartDesc(anyLong(), any()))
-                .thenReturn(new PageImpl<>(List.of(booking)));
+                .findOwnerBookings(anyLong(), eq(BookingState.ALL), any(), any()))
+                .thenReturn(new SliceImpl<>(List.of(bookingRow)));
 
         List<BookingDto> bookings = bookingService.getOwnerBookings(TEST_ID, bookingState.toString(), 0, 2);
 
         assertEquals(1, bookings.size());
         verify(bookingRepository, times(1))
-                .findByItemOwnerOrderByStartDesc(anyLong(), any());
+                .findOwnerBookings(anyLong(), eq(BookingState.ALL), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
 
@@ -726,7 +948,80 @@ class BookingServiceImplTest {
 
         assertEquals("Unknown state: " + state, exception.getMessage());
         verify(bookingRepository, times(0))
-                .findByItemOwnerOrderByStartDesc(anyLong(), any());
+                .findOwnerBookings(anyLong(), any(), any(), any());
         verify(userRepository, times(1)).existsById(anyLong());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getUserBookingsAfter_whenCursorGiven_thenSeekWithoutOffsetQueries() {
+        LocalDateTime afterStart = LocalDateTime.now();
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findBookerBookingsAfter(eq(TEST_ID), eq(BookingState.WAITING), any(),
+                eq(afterStart), eq(5L), eq(2)))
+                .thenReturn(List.of(bookingRow));
+
+        List<BookingDto> bookings = bookingService.getUserBookingsAfter(TEST_ID, "waiting", afterStart, 5L, 2);
+
+        assertEquals(1, bookings.size());
+        verify(bookingRepository, never()).findBookerBookings(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getOwnerBookingsAfter_whenSizeNull_thenNoLimit() {
+        LocalDateTime afterStart = LocalDateTime.now();
+
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.findOwnerBookingsAfter(eq(TEST_ID), eq(BookingState.ALL), any(),
+                eq(afterStart), eq(5L), eq(Integer.MAX_VALUE)))
+                .thenReturn(List.of(bookingRow));
+
+        List<BookingDto> bookings = bookingService.getOwnerBookingsAfter(TEST_ID, "ALL", afterStart, 5L, null);
+
+        assertEquals(1, bookings.size());
+    }
+
+    @Test
+    void getUserBookingsAfter_whenCursorIncomplete_thenThrowPaginationParameterException() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        assertThrows(PaginationParameterException.class,
+                () -> bookingService.getUserBookingsAfter(TEST_ID, "ALL", LocalDateTime.now(), null, 2));
+        verify(bookingRepository, never()).findBookerBookingsAfter(any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getOwnerBookingsAfter_whenInvalidState_thenThrowBookingUnsupportedStateException() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        assertThrows(BookingUnsupportedStateException.class,
+                () -> bookingService.getOwnerBookingsAfter(TEST_ID, "UNKNOWN", LocalDateTime.now(), 5L, 2));
+    }
+
+    @Test
+    void countUserBookings_whenInvoked_thenReturnRepositoryCount() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.countBookerBookings(eq(TEST_ID), eq(BookingState.PAST), any())).thenReturn(3L);
+
+        assertEquals(3L, bookingService.countUserBookings(TEST_ID, "past"));
+    }
+
+    @Test
+    void countOwnerBookings_whenInvalidState_thenThrowBookingUnsupportedStateException() {
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+
+        assertThrows(BookingUnsupportedStateException.class,
+                () -> bookingService.countOwnerBookings(TEST_ID, "UNKNOWN"));
+        verify(bookingRepository, never()).countOwnerBookings(any(), any(), any());
+    }
+
+    private void assignIdsOnInsert() {
+        doAnswer(invocation -> {
+            List<Booking> bookings = invocation.getArgument(0);
+            for (int i = 0; i < bookings.size(); i++) {
+                bookings.get(i).setId(10L + i);
+            }
+            return null;
+        }).when(bookingRepository).insertAll(anyList());
+    }
+}
@@ -0,0 +1,164 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ItemBookingIndexTest {
+    private static final long ITEM_ID = 1L;
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
+
+    @Mock
+    private BookingRepository bookingRepository;
+    private ItemBookingIndex itemBookingIndex;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        itemBookingIndex = new ItemBookingIndex(bookingRepository, passThroughReads, 100, new SimpleMeterRegistry());
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void overlaps_whenPeriodIntersectsBooking_thenTrue() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                booking(1L, now.minusDays(10), now.plusDays(10), BookingStatus.APPROVED),
+                booking(2L, now.plusDays(11), now.plusDays(12), BookingStatus.WAITING)));
+
+        assertTrue(itemBookingIndex.overlaps(ITEM_ID, now.plusDays(1), now.plusDays(2)));
+        assertTrue(itemBookingIndex.overlaps(ITEM_ID, now.plusDays(11).plusHours(1), now.plusDays(13)));
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now.plusDays(10), now.plusDays(11)));
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now.minusDays(12), now.minusDays(10)));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+
+    @Test
+    void findLastAndNextApproved_whenWaitingBookingsPresent_thenOnlyApprovedReturned() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                booking(1L, now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED),
+                booking(2L, now.minusDays(3), now.minusDays(2), BookingStatus.WAITING),
+                booking(3L, now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED),
+                booking(4L, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING)));
+
+        assertEquals(1L, itemBookingIndex.findLastApproved(ITEM_ID, now).orElseThrow().getId());
+        assertEquals(now.minusDays(4), itemBookingIndex.findLastApproved(ITEM_ID, now).orElseThrow().getEnd());
+        assertEquals(3L, itemBookingIndex.findNextApproved(ITEM_ID, now).orElseThrow().getId());
+        assertEquals(2L, itemBookingIndex.findNextApproved(ITEM_ID, now).orElseThrow().getBookerId());
+        assertTrue(itemBookingIndex.findNextApproved(ITEM_ID, now.plusDays(4)).isEmpty());
+    }
+
+    @Test
+    void findApprovedSlots_whenBookingsCrossGrid_thenTouchedSlotsBusy() {
+        LocalDateTime from = now.truncatedTo(ChronoUnit.HOURS);
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                booking(1L, from.minusHours(5), from.plusMinutes(30), BookingStatus.APPROVED),
+                booking(2L, from.plusHours(3).plusMinutes(10), from.plusHours(4), BookingStatus.APPROVED),
+                booking(3L, from.plusHours(5), from.plusHours(6), BookingStatus.WAITING),
+                booking(4L, from.plusHours(7), from.plusHours(20), BookingStatus.APPROVED)));
+
+        BitSet busy = itemBookingIndex.findApprovedSlots(ITEM_ID, from, Duration.ofHours(1), 8);
+
+        assertEquals("{0, 3, 7}", busy.toString());
+    }
+
+    @Test
+    void track_whenTransactionCommits_thenIndexUpdated() {
+        Booking booking = booking(1L, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING);
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        itemBookingIndex.track(booking);
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+        commit();
+        assertTrue(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+        assertTrue(itemBookingIndex.findNextApproved(ITEM_ID, now).isEmpty());
+
+        TransactionSynchronizationManager.initSynchronization();
+        booking.setStatus(BookingStatus.APPROVED);
+        itemBookingIndex.track(booking);
+        commit();
+        assertEquals(1L, itemBookingIndex.findNextApproved(ITEM_ID, now).orElseThrow().getId());
+
+        TransactionSynchronizationManager.initSynchronization();
+        booking.setStatus(BookingStatus.REJECTED);
+        itemBookingIndex.track(booking);
+        commit();
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection());
+    }
+
+    @Test
+    void remove_whenTransactionCommits_thenBookingDropped() {
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of(
+                booking(1L, now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED)));
+        assertTrue(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+
+        TransactionSynchronizationManager.initSynchronization();
+        itemBookingIndex.remove(ITEM_ID, 1L);
+        commit();
+
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+    }
+
+    @Test
+    void track_whenItemNotLoaded_thenNothingCachedUntilFirstRead() {
+        TransactionSynchronizationManager.initSynchronization();
+        itemBookingIndex.track(booking(1L, now.plusDays(1), now.plusDays(2), BookingStatus.WAITING));
+        commit();
+        verifyNoInteractions(bookingRepository);
+
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(ITEM_ID), anyCollection())).thenReturn(List.of());
+
+        assertFalse(itemBookingIndex.overlaps(ITEM_ID, now, now.plusDays(3)));
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        synchronizations.forEach(TransactionSynchronization::afterCommit);
+    }
+
+    private static Booking booking(Long id, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(ITEM_ID).build())
+                .booker(User.builder().id(2L).build())
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+}
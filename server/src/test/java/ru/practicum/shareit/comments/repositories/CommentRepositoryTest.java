@@ -62,4 +62,19 @@ class CommentRepositoryTest {
         List<Comment> comments = commentRepository.getCommentsByItem_idOrderByCreatedDesc(0L);
         assertEquals(0, comments.size());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByItemIds_whenInvoked_thenListHaveOneCommentWithAuthor() {
+        List<Comment> comments = commentRepository.findAllByItemIds(List.of(1L, 0L));
+
+        assertEquals(1, comments.size());
+        assertEquals(1L, comments.get(0).getItem().getId());
+        assertEquals("test", comments.get(0).getAuthor().getName());
+    }
+
+    @Test
+    void findAllByItemIds_whenInvokedIdsNotExist_thenListEmpty() {
+        List<Comment> comments = commentRepository.findAllByItemIds(List.of(0L));
+        assertEquals(0, comments.size());
+    }
+}
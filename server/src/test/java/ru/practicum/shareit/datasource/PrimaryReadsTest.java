@@ -0,0 +1,52 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PrimaryReadsTest {
+    private PlatformTransactionManager transactionManager;
+    private PrimaryReads primaryReads;
+
+    @BeforeEach
+    void setUp() {
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+        primaryReads = new PrimaryReads(transactionManager, List.of("jdbc:h2:mem:replica"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+
+    @Test
+    void read_whenCallerInReadWriteTransaction_thenNoNewTransaction() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        assertEquals("value", primaryReads.read(() -> "value"));
+        verify(transactionManager, never()).getTransaction(any());
+    }
+
+    @Test
+    void read_whenCallerInReadOnlyTransaction_thenOwnTransactionOnPrimary() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertEquals("value", primaryReads.read(() -> "value"));
+        verify(transactionManager).getTransaction(any());
+    }
+}
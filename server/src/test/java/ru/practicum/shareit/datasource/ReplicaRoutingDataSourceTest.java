@@ -0,0 +1,114 @@
+package ru.practicum.shareit.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaRoutingDataSourceTest {
+    private static final String PRIMARY_URL = "jdbc:h2:mem:routing-primary";
+    private static final String FIRST_REPLICA_URL = "jdbc:h2:mem:routing-replica-0";
+    private static final String SECOND_REPLICA_URL = "jdbc:h2:mem:routing-replica-1";
+
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() {
+        routing = new ReplicaRoutingDataSource(List.of("replica-0", "replica-1"), Duration.ofMinutes(1),
+                "X-Sharer-User-Id");
+        routing.setTargetDataSources(Map.of(
+                ReplicaRoutingDataSource.PRIMARY, new DriverManagerDataSource(PRIMARY_URL),
+                "replica-0", new DriverManagerDataSource(FIRST_REPLICA_URL),
+                "replica-1", new DriverManagerDataSource(SECOND_REPLICA_URL)));
+        routing.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clear();
+        }
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void getConnection_whenNoTransaction_thenPrimary() throws SQLException {
+        assertEquals(PRIMARY_URL, connectionUrl());
+    }
+
+    @Test
+    void getConnection_whenReadOnlyTransaction_thenReplicasInTurn() throws SQLException {
+        beginTransaction(true);
+
+        assertEquals(FIRST_REPLICA_URL, connectionUrl());
+        assertEquals(SECOND_REPLICA_URL, connectionUrl());
+        assertEquals(FIRST_REPLICA_URL, connectionUrl());
+    }
+
+    @Test
+    void getConnection_whenUserWroteRecently_thenTheirReadsStayOnPrimary() throws SQLException {
+        actAs(1L);
+        beginTransaction(false);
+        assertEquals(PRIMARY_URL, connectionUrl());
+        commit();
+
+        beginTransaction(true);
+        assertEquals(PRIMARY_URL, connectionUrl());
+
+        actAs(2L);
+        assertEquals(FIRST_REPLICA_URL, connectionUrl());
+    }
+
+    @Test
+    void getConnection_whenOnPrimary_thenPrimaryInReadOnlyTransaction() throws SQLException {
+        beginTransaction(true);
+
+        assertEquals(PRIMARY_URL, ReplicaRoutingDataSource.onPrimary(this::uncheckedConnectionUrl));
+        assertEquals(FIRST_REPLICA_URL, connectionUrl());
+    }
+
+    private void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clear();
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+    }
+
+    private static void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private String connectionUrl() throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            return connection.getMetaData().getURL();
+        }
+    }
+
+    private String uncheckedConnectionUrl() {
+        try {
+            return connectionUrl();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
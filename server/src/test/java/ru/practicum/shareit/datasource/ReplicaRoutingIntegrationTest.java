@@ -0,0 +1,83 @@
+package ru.practicum.shareit.datasource;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * The replica is a separate, never-synchronised H2 database, so a row is visible there only if
+ * the read was routed to the primary.
+ */
+@SpringBootTest(properties = {
+        "shareit.datasource.replica.urls=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "shareit.datasource.replica.read-your-writes=PT1M"
+})
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ReplicaRoutingIntegrationTest {
+    static final String REPLICA_URL = "jdbc:h2:mem:shareit-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeAll
+    static void createReplicaSchema() throws SQLException {
+        try (Connection connection = DriverManager.getConnection(REPLICA_URL, "test", "test");
+             Statement statement = connection.createStatement()) {
+            statement.execute("RUNSCRIPT FROM 'classpath:schema.sql'");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void findById_whenReaderWroteRecently_thenReadFromPrimary() {
+        actAs(100L);
+        UserDto saved = userService.save(UserDto.builder().name("writer").email("writer@replica.ru").build());
+
+        assertEquals("writer", userService.findById(saved.getId()).getName());
+
+        actAs(200L);
+        assertThrows(UserNotFoundException.class, () -> userService.findById(saved.getId()));
+    }
+
+    @Test
+    void pools_whenUsed_thenReportedToMeterRegistry() {
+        actAs(300L);
+        UserDto saved = userService.save(UserDto.builder().name("metrics").email("metrics@replica.ru").build());
+        actAs(400L);
+        assertThrows(UserNotFoundException.class, () -> userService.findById(saved.getId()));
+
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "shareit-primary").gauge());
+        assertNotNull(meterRegistry.find("hikaricp.connections").tag("pool", "shareit-replica-0").gauge());
+    }
+
+    private static void actAs(Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("X-Sharer-User-Id", userId);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+}
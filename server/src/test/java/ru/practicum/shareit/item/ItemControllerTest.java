@@ -18,8 +18,12 @@ import ru.practicum.shareit.comments.dto.CommentResponseDto;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.ItemParameterException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.AvailabilitySlotDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.user.model.User;
 
@@ -32,6 +36,7 @@ import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = {ItemController.class})
@@ -77,6 +82,30 @@ class ItemControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void getDashboard_whenInvoked_thenStatusOkAndCounts() {
+        List<ItemDashboardDto> dashboard = List.of(ItemDashboardDto.builder()
+                .id(1L)
+                .name("Дрель")
+                .available(true)
+                .approvedBookings(2)
+                .waitingBookings(1)
+                .comments(3)
+                .build());
+        when(itemService.getDashboard(anyLong(), anyInt(), anyInt())).thenReturn(dashboard);
+
+        mockMvc.perform(get("/items/dashboard")
+                        .header(HEADER_USER_ID, 1L)
+                        .param("from", "0")
+                        .param("size", "10")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(dashboard)))
+                .andDo(print())
+                .andReturn();
+    }
+
     @Test
     @SneakyThrows
     void getAllItems_whenListHaveOneItem_thenStatusOk() {
@@ -124,6 +153,44 @@ class ItemControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void getAvailability_whenInvokedCorrect_thenStatusOk() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusHours(3);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(1L)
+                .from(from)
+                .to(to)
+                .slots(List.of(AvailabilitySlotDto.builder().start(from).end(to).free(true).build()))
+                .build();
+        when(itemService.getAvailability(1L, 1L, from, to)).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header(HEADER_USER_ID, 1L)
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-01T13:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(availability)))
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void getAvailability_whenPeriodInvalid_thenStatusBadRequest() {
+        when(itemService.getAvailability(anyLong(), anyLong(), any(), any()))
+                .thenThrow(new ItemParameterException("Неверный период"));
+
+        mockMvc.perform(get("/items/{itemId}/availability", 1L)
+                        .header(HEADER_USER_ID, 1L)
+                        .param("from", "2030-01-01T13:00:00")
+                        .param("to", "2030-01-01T10:00:00"))
+                .andExpect(status().isBadRequest())
+                .andDo(print())
+                .andReturn();
+    }
+
     @Test
     @SneakyThrows
     void getItemById_whenInvokedWithNotExistUser_thenStatusNotFound() {
@@ -332,6 +399,66 @@ class ItemControllerTest {
                 .andReturn();
     }
 
+    @Test
+    @SneakyThrows
+    void searchItemsByText_whenCountRequested_thenTotalCountHeader() {
+        when(itemService.findByText(anyString(), anyInt(), anyInt())).thenReturn(itemDtoList);
+        when(itemService.countByText(eq("text"))).thenReturn(7L);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "7"))
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void searchItemsByText_whenPeriodGiven_thenOnlyFreeItems() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 4, 10, 0);
+        LocalDateTime end = LocalDateTime.of(2030, 1, 4, 18, 0);
+        when(itemService.findFreeByText("drill", start, end, 0, 10)).thenReturn(itemDtoList);
+        when(itemService.countFreeByText("drill", start, end)).thenReturn(1L);
+
+        mockMvc.perform(get("/items/search")
+                        .param("text", "drill")
+                        .param("start", "2030-01-04T10:00:00")
+                        .param("end", "2030-01-04T18:00:00")
+                        .param("from", "0")
+                        .param("size", "10")
+                        .param("count", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(content().json(objectMapper.writeValueAsString(itemDtoList)))
+                .andDo(print())
+                .andReturn();
+    }
+
+    @Test
+    @SneakyThrows
+    void checkSearchIndex_whenInvoked_thenReturnReport() {
+        ItemSearchIndexReport report = ItemSearchIndexReport.builder()
+                .enabled(true)
+                .indexed(1)
+                .stored(1)
+                .missing(List.of())
+                .outdated(List.of())
+                .stale(List.of())
+                .consistent(true)
+                .build();
+        when(itemService.checkSearchIndex()).thenReturn(report);
+
+        mockMvc.perform(get("/items/search/index"))
+                .andExpect(status().isOk())
+                .andExpect(content().json(objectMapper.writeValueAsString(report)))
+                .andDo(print())
+                .andReturn();
+    }
+
     @Test
     @SneakyThrows
     void addComment_whenInvokedCorrect_thenStatusOk() {
@@ -5,14 +5,17 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.util.PaginationUtil;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -75,6 +78,46 @@ public class ItemRepositoryTest {
         assertEquals(1, description.size());
     }
 
+    @Test
+    void searchFreePage_whenApprovedBookingInPeriod_thenItemSkipped() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        User booker = entityManager.persist(User.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build());
+        entityManager.persist(Booking.builder()
+                .item(testItem)
+                .booker(booker)
+                .start(start.plusHours(1))
+                .end(start.plusHours(3))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        assertEquals(0, itemRepository.searchFreePage("Description", start, start.plusDays(1),
+                PaginationUtil.getPaginationWithoutSort(0, 2)).getContent().size());
+        assertEquals(0, itemRepository.countFreeSearch("Description", start, start.plusDays(1)));
+        assertEquals(1, itemRepository.searchFreePage("Description", start.plusHours(3), start.plusDays(1),
+                PaginationUtil.getPaginationWithoutSort(0, 2)).getContent().size());
+    }
+
+    @Test
+    void searchFreePage_whenBookingNotApproved_thenItemFound() {
+        LocalDateTime start = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS).plusDays(1);
+        User booker = entityManager.persist(User.builder()
+                .name("booker")
+                .email("booker@mail.com")
+                .build());
+        entityManager.persist(Booking.builder()
+                .item(testItem)
+                .booker(booker)
+                .start(start)
+                .end(start.plusHours(3))
+                .status(BookingStatus.WAITING)
+                .build());
+
+        assertEquals(1, itemRepository.countFreeSearch("Description", start, start.plusDays(1)));
+    }
+
     @Test
     void findByIdFull_whenInvoked_thenHaveItemById() {
         Optional<Item> byIdFull = itemRepository.findByIdFull(1L);
@@ -106,15 +149,63 @@ public class ItemRepositoryTest {
 
     @Test
     void findAllByOwnerIdOrderByIdAsc_whenInvoked_thenListHave2Items() {
-        Page<Item> allByOwnerIdOrderByIdAsc = itemRepository
+        Slice<Item> allByOwnerIdOrderByIdAsc = itemRepository
                 .findAllByOwnerIdOrderByIdAsc(1L, PaginationUtil.getPaginationWithoutSort(0, 2));
         assertThat(allByOwnerIdOrderByIdAsc.getContent().size()).isEqualTo(2);
     }
 
     @Test
     void findAllByOwnerIdOrderByIdAsc_whenInvoked_thenListEmpty() {
-        Page<Item> allByOwnerIdOrderByIdAsc = itemRepository
+        Slice<Item> allByOwnerIdOrderByIdAsc = itemRepository
                 .findAllByOwnerIdOrderByIdAsc(0L, PaginationUtil.getPaginationWithoutSort(0, 2));
         assertThat(allByOwnerIdOrderByIdAsc.getContent().size()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByOwnerIdOrderByIdAsc_whenMoreItemsThanSize_thenSliceHasNext() {
+        Slice<Item> allByOwnerIdOrderByIdAsc = itemRepository
+                .findAllByOwnerIdOrderByIdAsc(1L, PaginationUtil.getPaginationWithoutSort(0, 1));
+        assertThat(allByOwnerIdOrderByIdAsc.getContent().size()).isEqualTo(1);
+        assertTrue(allByOwnerIdOrderByIdAsc.hasNext());
+    }
+
+    @Test
+    void findAllByOwnerIdOrderByIdAsc_whenUnboundedSize_thenListHave2Items() {
+        Slice<Item> allByOwnerIdOrderByIdAsc = itemRepository
+                .findAllByOwnerIdOrderByIdAsc(1L, PaginationUtil.getPaginationWithoutSort(null, null));
+        assertThat(allByOwnerIdOrderByIdAsc.getContent().size()).isEqualTo(2);
+    }
+
+    @Test
+    void countByOwnerId_whenInvoked_thenReturn2() {
+        assertThat(itemRepository.countByOwnerId(1L)).isEqualTo(2);
+    }
+
+    @Test
+    void countSearch_whenInvoked_thenCountOnlyAvailable() {
+        assertThat(itemRepository.countSearch("Description")).isEqualTo(1);
+    }
+
+    @Test
+    void findAllByIdsFull_whenInvoked_thenItemsWithOwner() {
+        List<Item> allByIds = itemRepository.findAllByIdsFull(List.of(1L, 2L, 0L));
+
+        assertThat(allByIds.size()).isEqualTo(2);
+        assertThat(allByIds.get(0).getOwner().getName()).isEqualTo("test");
+    }
+
+    @Test
+    void findAllByRequestIds_whenInvoked_thenListHaveOneItemWithOwner() {
+        List<Item> allByRequestIds = itemRepository.findAllByRequestIds(List.of(0L, 1L));
+
+        assertThat(allByRequestIds.size()).isEqualTo(1);
+        assertThat(allByRequestIds.get(0).getOwner().getName()).isEqualTo("test");
+    }
+
+    @Test
+    void findAllByRequestIds_whenInvokedNotExistRequests_thenListEmpty() {
+        List<Item> allByRequestIds = itemRepository.findAllByRequestIds(List.of(0L));
+
+        assertThat(allByRequestIds.size()).isEqualTo(0);
+    }
+}
@@ -0,0 +1,91 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemResponseDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ItemResponseCacheTest {
+    private MeterRegistry meterRegistry;
+    private ItemResponseCache itemResponseCache;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        itemResponseCache = new ItemResponseCache(100, meterRegistry);
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void getView_whenRepeated_thenLoadOnceAndCountHitAndMiss() {
+        itemResponseCache.getView(1L, this::loadView);
+        itemResponseCache.getView(1L, this::loadView);
+
+        assertEquals(1, loads.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "itemViews").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "itemViews").tag("result", "miss")
+                .functionCounter().count());
+    }
+
+    @Test
+    void getView_whenCallerChangesResponse_thenCachedViewUnchanged() {
+        itemResponseCache.getView(1L, this::loadView).getResponse().setName("changed");
+
+        assertEquals("item", itemResponseCache.getView(1L, this::loadView).getResponse().getName());
+    }
+
+    @Test
+    void evict_whenInvoked_thenReloadAndCountInvalidation() {
+        itemResponseCache.getView(1L, this::loadView);
+        itemResponseCache.evict(1L);
+        itemResponseCache.getView(1L, this::loadView);
+
+        assertEquals(2, loads.get());
+        assertEquals(1, meterRegistry.get("cache.invalidations").tag("cache", "itemViews").counter().count());
+    }
+
+    @Test
+    void getOwnerView_whenNextBookingAlreadyEnded_thenNotKept() {
+        itemResponseCache.getOwnerView(1L, id -> loadOwnerView(LocalDateTime.now().minusSeconds(1)));
+        itemResponseCache.getOwnerView(1L, id -> loadOwnerView(LocalDateTime.now().minusSeconds(1)));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getOwnerView_whenNoNextBooking_thenKeptUntilEvicted() {
+        itemResponseCache.getOwnerView(1L, id -> loadOwnerView(null));
+        itemResponseCache.getOwnerView(1L, id -> loadOwnerView(null));
+        itemResponseCache.evictOwnerViews();
+        itemResponseCache.getOwnerView(1L, id -> loadOwnerView(null));
+
+        assertEquals(2, loads.get());
+    }
+
+    private ItemResponseCache.ItemView loadView(Long itemId) {
+        loads.incrementAndGet();
+        return new ItemResponseCache.ItemView(1L, response(itemId));
+    }
+
+    private ItemResponseCache.OwnerView loadOwnerView(LocalDateTime validUntil) {
+        loads.incrementAndGet();
+        return new ItemResponseCache.OwnerView(response(1L), validUntil);
+    }
+
+    private static ItemResponseDto response(Long itemId) {
+        return ItemResponseDto.builder()
+                .id(itemId)
+                .name("item")
+                .comments(List.of())
+                .build();
+    }
+}
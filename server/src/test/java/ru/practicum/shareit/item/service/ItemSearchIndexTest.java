@@ -0,0 +1,107 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemSearchIndexReport;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemSearchIndexTest {
+    private ItemSearchIndex itemSearchIndex;
+    private Item drill;
+    private Item screwdriver;
+    private Item hiddenDrill;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex = new ItemSearchIndex();
+        drill = item(1L, "Дрель", "Простая дрель", true);
+        screwdriver = item(2L, "Отвертка", "Аккумуляторная отвертка", true);
+        hiddenDrill = item(3L, "Дрель+", "Дрель с аккумулятором", false);
+        itemSearchIndex.rebuild(List.of(screwdriver, hiddenDrill, drill));
+    }
+
+    @Test
+    void search_whenSubstringInAnyCase_thenMatchLikeSearch() {
+        assertEquals(List.of(1L), itemSearchIndex.search("дРелЬ", 0, 10));
+        assertEquals(List.of(2L), itemSearchIndex.search("аккУМУляторная", 0, 10));
+        assertEquals(List.of(1L, 2L), itemSearchIndex.search("о", 0, 10));
+    }
+
+    @Test
+    void search_whenTrigramsFoundButNoSubstring_thenNoMatch() {
+        assertEquals(List.of(), itemSearchIndex.search("дрель отвертка", 0, 10));
+    }
+
+    @Test
+    void search_whenOffsetAndLimit_thenPageOfMatches() {
+        itemSearchIndex.put(item(4L, "Дрель 2", "Ударная", true));
+
+        assertEquals(List.of(4L), itemSearchIndex.search("дрель", 1, 1));
+        assertEquals(2, itemSearchIndex.count("дрель"));
+    }
+
+    @Test
+    void searchAfter_whenIdGiven_thenMatchesAboveItInIdOrder() {
+        itemSearchIndex.put(item(4L, "Дрель 2", "Ударная", true));
+        itemSearchIndex.put(item(5L, "Дрель 3", "Угловая", true));
+
+        assertEquals(List.of(1L, 4L), itemSearchIndex.searchAfter("дрель", 0, 2));
+        assertEquals(List.of(5L), itemSearchIndex.searchAfter("дрель", 4L, 2));
+        assertEquals(List.of(), itemSearchIndex.searchAfter("дрель", 5L, 2));
+    }
+
+    @Test
+    void put_whenItemBecomesAvailableOrChanged_thenIndexUpdated() {
+        hiddenDrill.setAvailable(true);
+        itemSearchIndex.put(hiddenDrill);
+        drill.setName("Перфоратор");
+        drill.setDescription("Мощный");
+        itemSearchIndex.put(drill);
+
+        assertEquals(List.of(3L), itemSearchIndex.search("дрель", 0, 10));
+        assertEquals(List.of(1L), itemSearchIndex.search("перфоратор", 0, 10));
+    }
+
+    @Test
+    void remove_whenInvoked_thenItemNotFound() {
+        itemSearchIndex.remove(1L);
+
+        assertEquals(0, itemSearchIndex.count("дрель"));
+    }
+
+    @Test
+    void check_whenIndexDiffersFromStored_thenReportDifferences() {
+        Item renamed = item(2L, "Шуруповерт", "Аккумуляторная отвертка", true);
+        Item added = item(5L, "Пила", "Цепная", true);
+
+        ItemSearchIndexReport report = itemSearchIndex.check(List.of(renamed, added, hiddenDrill));
+
+        assertFalse(report.isConsistent());
+        assertEquals(List.of(5L), report.getMissing());
+        assertEquals(List.of(2L), report.getOutdated());
+        assertEquals(List.of(1L), report.getStale());
+    }
+
+    @Test
+    void check_whenIndexMatchesStored_thenConsistent() {
+        ItemSearchIndexReport report = itemSearchIndex.check(List.of(drill, screwdriver));
+
+        assertTrue(report.isConsistent());
+        assertEquals(2, report.getIndexed());
+    }
+
+    private static Item item(Long id, String name, String description, boolean available) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .build();
+    }
+}
@@ -1,40 +1,58 @@
 package ru.practicum.shareit.item.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import ru.practicum.shareit.booking.dto.BookingDtoUser;
 import ru.practicum.shareit.booking.dto.BookingResponseDto;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
 import ru.practicum.shareit.comments.dto.CommentRequestDto;
 import ru.practicum.shareit.comments.dto.CommentResponseDto;
 import ru.practicum.shareit.comments.model.Comment;
 import ru.practicum.shareit.comments.repositories.CommentRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exceptions.*;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemResponseDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.repositories.ItemSummaryRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ItemServiceImplTest {
     public static final long TEST_ID = 1L;
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
     private ItemService itemService;
     @Mock
     private ItemRepository itemRepository;
@@ -44,6 +62,8 @@ class ItemServiceImplTest {
     private BookingRepository bookingRepository;
     @Mock
     private CommentRepository commentRepository;
+    @Mock
+    private ItemSummaryRepository itemSummaryRepository;
     private Item item;
     private ItemDto itemDto;
     private ItemResponseDto itemResponseDto;
@@ -52,7 +72,13 @@ class ItemServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository);
+        itemService = new ItemServiceImpl(itemRepository, userRepository, bookingRepository, commentRepository,
+                new ItemSearchIndex(), new ItemResponseCache(100, new SimpleMeterRegistry()),
+                new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new ItemBookingIndex(bookingRepository, passThroughReads, 100, new SimpleMeterRegistry()),
+                passThroughReads,
+                new ItemSummaries(itemSummaryRepository, bookingRepository, commentRepository));
         itemDto = ItemDto.builder()
                 .name("test")
                 .comments(List.of())
@@ -209,12 +235,7 @@ class ItemServiceImplTest {
     void findByI_whenInvoked_thenReturnItem() {
         when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
         when(commentRepository.getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID))).thenReturn(List.of());
-        when(bookingRepository
-                .findTop1BookingByItemIdAndEndIsBeforeAndStatusIs(eq(TEST_ID), any(), any(), any()))
-                .thenReturn(List.of());
-        when(bookingRepository
-                .findTop1BookingByItemIdAndEndIsAfterAndStatusIs(eq(TEST_ID), any(), any(), any()))
-                .thenReturn(List.of());
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(TEST_ID), any())).thenReturn(List.of());
 
         ItemResponseDto result = itemService.findById(TEST_ID, TEST_ID);
 
@@ -225,10 +246,59 @@ class ItemServiceImplTest {
         assertEquals(itemResponseDto.getRequestId(), result.getRequestId());
         verify(itemRepository, times(1)).findByIdFull(TEST_ID);
         verify(commentRepository, times(1)).getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID));
-        verify(bookingRepository, times(1)).findTop1BookingByItemIdAndEndIsBeforeAndStatusIs(
-                eq(TEST_ID), any(), any(), any());
-        verify(bookingRepository, times(1)).findTop1BookingByItemIdAndEndIsAfterAndStatusIs(
-                eq(TEST_ID), any(), any(), any());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(eq(TEST_ID), any());
+    }
+
+    @Test
+    void findById_whenNonOwnerRepeats_thenServedFromCache() {
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
+        when(commentRepository.getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID))).thenReturn(List.of());
+
+        itemService.findById(TEST_ID, 2L);
+        ItemResponseDto result = itemService.findById(TEST_ID, 3L);
+
+        assertEquals(item.getName(), result.getName());
+        verify(itemRepository, times(1)).findByIdFull(TEST_ID);
+        verify(commentRepository, times(1)).getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID));
+        verify(bookingRepository, never()).findAllByItemIdAndStatusIn(any(), any());
+    }
+
+    @Test
+    void findById_whenItemPatched_thenCacheEvicted() {
+        when(itemRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(item));
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
+        when(itemRepository.save(any())).thenReturn(item);
+        when(commentRepository.getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID))).thenReturn(List.of());
+
+        itemService.findById(TEST_ID, 2L);
+        itemService.patch(TEST_ID, TEST_ID, ItemDto.builder().name("updated").build());
+        ItemResponseDto result = itemService.findById(TEST_ID, 2L);
+
+        assertEquals("updated", result.getName());
+        verify(itemRepository, times(3)).findByIdFull(TEST_ID);
+    }
+
+    @Test
+    void findById_whenOwnerViewHasNextBooking_thenCachedUntilItsEnd() {
+        Booking nextBooking = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user)
+                .start(LocalDateTime.now().plusDays(1))
+                .end(LocalDateTime.now().plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
+        when(commentRepository.getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID))).thenReturn(List.of());
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(TEST_ID), any())).thenReturn(List.of(nextBooking));
+
+        itemService.findById(TEST_ID, TEST_ID);
+        ItemResponseDto result = itemService.findById(TEST_ID, TEST_ID);
+        ItemResponseDto nonOwnerResult = itemService.findById(TEST_ID, 2L);
+
+        assertEquals(2L, result.getLastBooking().getId());
+        assertEquals(null, nonOwnerResult.getLastBooking());
+        verify(bookingRepository, times(1)).findAllByItemIdAndStatusIn(eq(TEST_ID), any());
     }
 
     @Test
@@ -241,10 +311,7 @@ class ItemServiceImplTest {
         assertEquals("Вещь не найдена", itemNotFoundException.getMessage());
         verify(itemRepository, times(1)).findByIdFull(TEST_ID);
         verify(commentRepository, times(0)).getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID));
-        verify(bookingRepository, times(0)).findTop1BookingByItemIdAndEndIsBeforeAndStatusIs(
-                eq(TEST_ID), any(), any(), any());
-        verify(bookingRepository, times(0)).findTop1BookingByItemIdAndEndIsAfterAndStatusIs(
-                eq(TEST_ID), any(), any(), any());
+        verify(bookingRepository, times(0)).findAllByItemIdAndStatusIn(eq(TEST_ID), any());
     }
 
     @Test
@@ -269,29 +336,89 @@ class ItemServiceImplTest {
     }
 
     @Test
-    void findAllItemByUserId_whenInvoked_thenReturnListOneItem() {
+    void findAllItemByUserId_whenSummaryValid_thenBookingsFromSummaryWithoutBookingQuery() {
+        LocalDateTime now = LocalDateTime.now();
+        ItemSummary summary = ItemSummary.builder()
+                .itemId(TEST_ID)
+                .item(item)
+                .lastBookingId(1L)
+                .lastBookerId(TEST_ID)
+                .lastStart(now.minusDays(2))
+                .lastEnd(now.minusDays(1))
+                .lastStatus(BookingStatus.APPROVED)
+                .nextBookingId(2L)
+                .nextBookerId(TEST_ID)
+                .nextStart(now.plusDays(1))
+                .nextEnd(now.plusDays(2))
+                .nextStatus(BookingStatus.WAITING)
+                .validUntil(now.plusDays(1))
+                .build();
         when(userRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(user));
-        when(itemRepository.findAllByOwnerIdOrderByIdAsc(eq(TEST_ID), any()))
-                .thenReturn(new PageImpl<>(List.of(item)));
-        when(commentRepository.getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID))).thenReturn(List.of());
-        when(bookingRepository.findFirstByItem_idAndEndBeforeOrderByEndDesc(eq(TEST_ID), any()))
-                .thenReturn(Booking.builder().id(1L).booker(user).build());
-        when(bookingRepository.findFirstByItem_idAndStartAfterOrderByStartAsc(eq(TEST_ID), any()))
-                .thenReturn(Booking.builder().id(2L).booker(user).build());
+        when(itemSummaryRepository.findAllByOwnerId(eq(TEST_ID), any())).thenReturn(new SliceImpl<>(List.of(summary)));
+        when(commentRepository.findAllByItemIds(eq(List.of(TEST_ID)))).thenReturn(List.of(comment));
+
+        List<ItemResponseDto> result = itemService.findAllItemByUserId(TEST_ID, 0, 2);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getLastBooking().getId());
+        assertEquals(now.minusDays(1), result.get(0).getLastBooking().getEnd());
+        assertEquals(2L, result.get(0).getNextBooking().getId());
+        assertEquals(BookingStatus.WAITING, result.get(0).getNextBooking().getStatus());
+        assertEquals(1, result.get(0).getComments().size());
+        verify(bookingRepository, never()).findLastAndNextByItemIds(any(), any());
+        verify(commentRepository, never()).getCommentsByItem_idOrderByCreatedDesc(any());
+    }
+
+    @Test
+    void findAllItemByUserId_whenSummaryOutdated_thenBookingsRecomputed() {
+        LocalDateTime now = LocalDateTime.now();
+        Booking lastBooking = Booking.builder()
+                .id(1L)
+                .item(item)
+                .booker(user)
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .build();
+        Booking nextBooking = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user)
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .build();
+        ItemSummary summary = ItemSummary.builder()
+                .itemId(TEST_ID)
+                .item(item)
+                .nextBookingId(1L)
+                .nextStart(now.minusDays(2))
+                .validUntil(now.minusDays(2))
+                .build();
+        when(userRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(user));
+        when(itemSummaryRepository.findAllByOwnerId(eq(TEST_ID), any())).thenReturn(new SliceImpl<>(List.of(summary)));
+        when(commentRepository.findAllByItemIds(eq(List.of(TEST_ID)))).thenReturn(List.of(comment));
+        when(bookingRepository.findLastAndNextByItemIds(eq(List.of(TEST_ID)), any()))
+                .thenReturn(List.of(nextBooking, lastBooking));
 
         List<ItemResponseDto> result = itemService.findAllItemByUserId(TEST_ID, 0, 2);
 
         assertEquals(1, result.size());
         assertEquals(result.get(0).getLastBooking().getId(), 1L);
         assertEquals(result.get(0).getNextBooking().getId(), 2L);
-        verify(itemRepository, times(1)).findAllByOwnerIdOrderByIdAsc(eq(TEST_ID), any());
-        verify(commentRepository, times(1)).getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID));
-        verify(bookingRepository, times(1))
-                .findFirstByItem_idAndEndBeforeOrderByEndDesc(eq(TEST_ID), any());
-        verify(bookingRepository, times(1))
-                .findFirstByItem_idAndStartAfterOrderByStartAsc(eq(TEST_ID), any());
+        assertEquals(1L, summary.getNextBookingId());
+        verify(bookingRepository, times(1)).findLastAndNextByItemIds(eq(List.of(TEST_ID)), any());
         verify(userRepository, times(1)).findById(eq(TEST_ID));
+    }
+
+    @Test
+    void findAllItemByUserId_whenOwnerHasNoItems_thenReturnEmptyListWithoutBatchQueries() {
+        when(userRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(user));
+        when(itemSummaryRepository.findAllByOwnerId(eq(TEST_ID), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        List<ItemResponseDto> result = itemService.findAllItemByUserId(TEST_ID, 0, 2);
 
+        assertEquals(0, result.size());
+        verify(commentRepository, never()).findAllByItemIds(any());
+        verify(bookingRepository, never()).findLastAndNextByItemIds(any(), any());
     }
 
     @Test
@@ -302,18 +429,46 @@ class ItemServiceImplTest {
                 () -> itemService.findAllItemByUserId(TEST_ID, 0, 2));
 
         assertEquals("Пользователь не найден", userNotFoundException.getMessage());
-        verify(itemRepository, times(0)).findAllByOwnerIdOrderByIdAsc(eq(TEST_ID), any());
-        verify(commentRepository, times(0)).getCommentsByItem_idOrderByCreatedDesc(eq(TEST_ID));
-        verify(bookingRepository, times(0))
-                .findFirstByItem_idAndEndBeforeOrderByEndDesc(eq(TEST_ID), any());
-        verify(bookingRepository, times(0))
-                .findFirstByItem_idAndStartAfterOrderByStartAsc(eq(TEST_ID), any());
+        verify(itemSummaryRepository, never()).findAllByOwnerId(any(), any());
+        verify(commentRepository, times(0)).findAllByItemIds(any());
+        verify(bookingRepository, times(0)).findLastAndNextByItemIds(any(), any());
         verify(userRepository, times(1)).findById(eq(TEST_ID));
     }
 
+    @Test
+    void getDashboard_whenInvoked_thenCountsFromSummary() {
+        ItemSummary summary = ItemSummary.builder()
+                .itemId(TEST_ID)
+                .item(item)
+                .approvedCount(3)
+                .waitingCount(1)
+                .commentCount(2)
+                .build();
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+        when(itemSummaryRepository.findAllByOwnerId(eq(TEST_ID), any())).thenReturn(new SliceImpl<>(List.of(summary)));
+
+        List<ItemDashboardDto> result = itemService.getDashboard(TEST_ID, 0, 10);
+
+        assertEquals(1, result.size());
+        assertEquals(item.getName(), result.get(0).getName());
+        assertEquals(3, result.get(0).getApprovedBookings());
+        assertEquals(1, result.get(0).getWaitingBookings());
+        assertEquals(2, result.get(0).getComments());
+        assertNull(result.get(0).getLastBooking());
+        verifyNoInteractions(commentRepository, bookingRepository);
+    }
+
+    @Test
+    void getDashboard_whenUserNotExist_thenThrowUserNotFoundException() {
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(false);
+
+        assertThrows(UserNotFoundException.class, () -> itemService.getDashboard(TEST_ID, 0, 10));
+        verify(itemSummaryRepository, never()).findAllByOwnerId(any(), any());
+    }
+
     @Test
     void findByText_whenInvoked_thenReturnListOneItem() {
-        when(itemRepository.searchPage(anyString(), any())).thenReturn(new PageImpl<>(List.of(item)));
+        when(itemRepository.searchPage(anyString(), any())).thenReturn(new SliceImpl<>(List.of(item)));
 
         List<ItemDto> result = itemService.findByText("test", 0, 2);
 
@@ -321,6 +476,266 @@ class ItemServiceImplTest {
         verify(itemRepository, times(1)).searchPage(anyString(), any());
     }
 
+    @Test
+    void getAvailability_whenApprovedBookingInside_thenBusySlotBetweenFreeOnes() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 30);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 16, 0);
+        Booking booking = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 15))
+                .end(LocalDateTime.of(2030, 1, 1, 13, 0))
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(TEST_ID), any())).thenReturn(List.of(booking));
+
+        ItemAvailabilityDto result = itemService.getAvailability(TEST_ID, TEST_ID, from, to);
+
+        assertEquals(3, result.getSlots().size());
+        assertEquals(from, result.getSlots().get(0).getStart());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 12, 0), result.getSlots().get(0).getEnd());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 12, 0), result.getSlots().get(1).getStart());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 13, 0), result.getSlots().get(1).getEnd());
+        assertEquals(false, result.getSlots().get(1).isFree());
+        assertEquals(to, result.getSlots().get(2).getEnd());
+        assertEquals(true, result.getSlots().get(2).isFree());
+    }
+
+    @Test
+    void getAvailability_whenPeriodEndsInsideMinute_thenPartialSlotCounted() {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = LocalDateTime.of(2030, 1, 1, 12, 0, 30);
+        Booking booking = Booking.builder()
+                .id(2L)
+                .item(item)
+                .booker(user)
+                .start(LocalDateTime.of(2030, 1, 1, 12, 0))
+                .end(LocalDateTime.of(2030, 1, 1, 13, 0))
+                .status(BookingStatus.APPROVED)
+                .build();
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+        when(itemRepository.findByIdFull(TEST_ID)).thenReturn(Optional.of(item));
+        when(bookingRepository.findAllByItemIdAndStatusIn(eq(TEST_ID), any())).thenReturn(List.of(booking));
+
+        ItemAvailabilityDto result = itemService.getAvailability(TEST_ID, TEST_ID, from, to);
+
+        assertEquals(2, result.getSlots().size());
+        assertEquals(from, result.getSlots().get(0).getStart());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 12, 0), result.getSlots().get(0).getEnd());
+        assertEquals(true, result.getSlots().get(0).isFree());
+        assertEquals(LocalDateTime.of(2030, 1, 1, 12, 0), result.getSlots().get(1).getStart());
+        assertEquals(to, result.getSlots().get(1).getEnd());
+        assertEquals(false, result.getSlots().get(1).isFree());
+    }
+
+    @Test
+    void getAvailability_whenPeriodReversed_thenThrowItemParameterException() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+
+        ItemParameterException exception = assertThrows(ItemParameterException.class,
+                () -> itemService.getAvailability(TEST_ID, TEST_ID, now, now.minusHours(1)));
+
+        assertEquals("Неверный период", exception.getMessage());
+        verify(bookingRepository, never()).findAllByItemIdAndStatusIn(any(), any());
+    }
+
+    @Test
+    void getAvailability_whenPeriodTooLong_thenThrowItemParameterException() {
+        LocalDateTime now = LocalDateTime.now();
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+
+        assertThrows(ItemParameterException.class,
+                () -> itemService.getAvailability(TEST_ID, TEST_ID, now, now.plusYears(2)));
+    }
+
+    @Test
+    void countItemsByUserId_whenInvoked_thenReturnRepositoryCount() {
+        when(userRepository.existsById(eq(TEST_ID))).thenReturn(true);
+        when(itemRepository.countByOwnerId(eq(TEST_ID))).thenReturn(2L);
+
+        assertEquals(2L, itemService.countItemsByUserId(TEST_ID));
+    }
+
+    @Test
+    void countByText_whenTextIsBlank_thenReturnZero() {
+        assertEquals(0L, itemService.countByText("  "));
+        verify(itemRepository, never()).countSearch(any());
+    }
+
+    @Test
+    void findByText_whenFullTextMode_thenReturnItemsInRankOrder() {
+        Item second = Item.builder().id(2L).name("second").description("test").available(true).owner(user).build();
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+        when(itemRepository.searchFullTextIds(eq("дрел:* & test:*"), any()))
+                .thenReturn(new SliceImpl<>(List.<Number>of(2L, TEST_ID)));
+        when(itemRepository.findAllByIdsFull(eq(List.of(2L, TEST_ID)))).thenReturn(List.of(item, second));
+
+        List<ItemDto> result = itemService.findByText("дрел & test!", 0, 2);
+
+        assertEquals(List.of(2L, TEST_ID), result.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        verify(itemRepository, never()).searchPage(anyString(), any());
+    }
+
+    @Test
+    void findByText_whenFullTextModeAndNoWords_thenReturnListEmpty() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.FULL_TEXT);
+
+        List<ItemDto> result = itemService.findByText("&!:", 0, 2);
+
+        assertEquals(0, result.size());
+        verify(itemRepository, never()).searchFullTextIds(any(), any());
+    }
+
+    @Test
+    void findByText_whenTrigramModeAndNothingFound_thenNoItemQuery() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.TRIGRAM);
+        when(itemRepository.searchTrigramIds(eq("test"), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        List<ItemDto> result = itemService.findByText("test", 0, 2);
+
+        assertEquals(0, result.size());
+        verify(itemRepository, never()).findAllByIdsFull(any());
+    }
+
+    @Test
+    void findByText_whenMemoryMode_thenAnswerFromRebuiltIndex() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(item));
+        when(itemRepository.findAllByIdsFull(eq(List.of(TEST_ID)))).thenReturn(List.of(item));
+
+        ((ItemServiceImpl) itemService).rebuildSearchIndex();
+        List<ItemDto> result = itemService.findByText(item.getName().toUpperCase(), 0, 2);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, itemService.countByText(item.getName()));
+        verify(itemRepository, never()).searchPage(anyString(), any());
+    }
+
+    @Test
+    void findFreeByText_whenMemoryMode_thenBookedItemsSkipped() {
+        Item second = Item.builder().id(2L).name("test drill").description("test").available(true).owner(user).build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(item, second));
+        when(bookingRepository.findItemIdsApprovedBetween(eq(List.of(TEST_ID, 2L)), eq(start), eq(end)))
+                .thenReturn(List.of(TEST_ID));
+        when(itemRepository.findAllByIdsFull(eq(List.of(2L)))).thenReturn(List.of(second));
+
+        ((ItemServiceImpl) itemService).rebuildSearchIndex();
+        List<ItemDto> result = itemService.findFreeByText("test", start, end, 0, 10);
+
+        assertEquals(List.of(2L), result.stream().map(ItemDto::getId).collect(Collectors.toList()));
+        assertEquals(1L, itemService.countFreeByText("test", start, end));
+    }
+
+    @Test
+    void findFreeByText_whenMemoryModeAndManyMatches_thenBookingsQueriedInChunks() {
+        List<Item> items = LongStream.rangeClosed(1, 501)
+                .mapToObj(id -> Item.builder().id(id).name("test").description("test").available(true).owner(user)
+                        .build())
+                .collect(Collectors.toList());
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(items);
+        when(itemRepository.findAllByIdsFull(eq(List.of(1L)))).thenReturn(List.of(items.get(0)));
+
+        ((ItemServiceImpl) itemService).rebuildSearchIndex();
+        List<ItemDto> result = itemService.findFreeByText("test", start, end, 0, 1);
+
+        assertEquals(1, result.size());
+        verify(bookingRepository, times(1)).findItemIdsApprovedBetween(argThat(ids -> ids.size() == 500),
+                eq(start), eq(end));
+
+        assertEquals(501L, itemService.countFreeByText("test", start, end));
+        verify(bookingRepository).findItemIdsApprovedBetween(eq(List.of(501L)), eq(start), eq(end));
+    }
+
+    @Test
+    void findFreeByText_whenLikeMode_thenAntiJoinQuery() {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        LocalDateTime end = start.plusDays(1);
+        when(itemRepository.searchFreePage(eq("test"), eq(start), eq(end), any()))
+                .thenReturn(new SliceImpl<>(List.of(item)));
+
+        List<ItemDto> result = itemService.findFreeByText("test", start, end, 0, 10);
+
+        assertEquals(1, result.size());
+        verify(itemRepository, never()).searchPage(anyString(), any());
+    }
+
+    @Test
+    void findFreeByText_whenPeriodMissingEnd_thenThrowItemParameterException() {
+        ItemParameterException exception = assertThrows(ItemParameterException.class,
+                () -> itemService.findFreeByText("test", LocalDateTime.now(), null, 0, 10));
+
+        assertEquals("Неверный период", exception.getMessage());
+        verify(itemRepository, never()).searchFreePage(any(), any(), any(), any());
+    }
+
+    @Test
+    void delete_whenMemoryMode_thenItemRemovedFromIndex() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(itemRepository.findAllByAvailableTrue()).thenReturn(List.of(item));
+        when(itemRepository.existsById(eq(TEST_ID))).thenReturn(true);
+
+        ((ItemServiceImpl) itemService).rebuildSearchIndex();
+        itemService.delete(TEST_ID);
+
+        assertEquals(0L, itemService.countByText(item.getName()));
+    }
+
+    @Test
+    void save_whenMemoryModeAndTransactionRolledBack_thenItemNotIndexed() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(userRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(user));
+        when(itemRepository.save(any())).thenReturn(item);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.save(TEST_ID, itemDto, null);
+
+            assertEquals(0L, itemService.countByText(item.getName()));
+        } finally {
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(0L, itemService.countByText(item.getName()));
+    }
+
+    @Test
+    void save_whenMemoryModeAndTransactionCommitted_thenItemIndexed() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.MEMORY);
+        when(userRepository.findById(eq(TEST_ID))).thenReturn(Optional.of(user));
+        when(itemRepository.save(any())).thenReturn(item);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            itemService.save(TEST_ID, itemDto, null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(1L, itemService.countByText(item.getName()));
+    }
+
+    @Test
+    void countByText_whenTrigramMode_thenCountTrigram() {
+        ReflectionTestUtils.setField(itemService, "searchMode", ItemSearchMode.TRIGRAM);
+        when(itemRepository.countTrigram(eq("test"))).thenReturn(4L);
+
+        assertEquals(4L, itemService.countByText("test"));
+        verify(itemRepository, never()).countSearch(any());
+    }
+
     @Test
     void findByText_whenTextIsEmpty_thenReturnListEmpty() {
         List<ItemDto> result = itemService.findByText("", 0, 2);
@@ -441,4 +856,32 @@ class ItemServiceImplTest {
         assertEquals(0, result.size());
         verify(itemRepository, times(1)).findAllByRequestId(TEST_ID);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllItemByRequests_whenInvoked_thenItemsGroupedByRequest() {
+        Item otherItem = Item.builder()
+                .id(2L)
+                .owner(user)
+                .name("other")
+                .requestId(2L)
+                .description("other")
+                .available(true)
+                .build();
+        when(itemRepository.findAllByRequestIds(List.of(TEST_ID, 2L, 3L))).thenReturn(List.of(item, otherItem));
+
+        Map<Long, List<ItemDto>> result = itemService.findAllItemByRequests(List.of(TEST_ID, 2L, 3L));
+
+        assertEquals(2, result.size());
+        assertEquals(TEST_ID, result.get(TEST_ID).get(0).getId());
+        assertEquals(2L, result.get(2L).get(0).getId());
+        verify(itemRepository, times(1)).findAllByRequestIds(List.of(TEST_ID, 2L, 3L));
+    }
+
+    @Test
+    void findAllItemByRequests_whenRequestIdsEmpty_thenMapEmptyWithoutQuery() {
+        Map<Long, List<ItemDto>> result = itemService.findAllItemByRequests(List.of());
+
+        assertEquals(0, result.size());
+        verify(itemRepository, never()).findAllByRequestIds(any());
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import ru.practicum.shareit.booking.dto.BookingCreateDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.comments.dto.CommentRequestDto;
+import ru.practicum.shareit.item.dto.ItemDashboardDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemSummary;
+import ru.practicum.shareit.item.repositories.ItemSummaryRepository;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+class ItemSummariesTest {
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private UserService userService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemSummaries itemSummaries;
+    @Autowired
+    private ItemSummaryRepository itemSummaryRepository;
+
+    @Test
+    void getDashboard_whenBookingsAndCommentsChange_thenSummaryFollows() {
+        Long ownerId = userService.save(UserDto.builder().name("owner").email("owner@summary.ru").build()).getId();
+        Long bookerId = userService.save(UserDto.builder().name("booker").email("booker@summary.ru").build()).getId();
+        Long itemId = itemService.save(ownerId, ItemDto.builder()
+                .name("Дрель")
+                .description("Простая дрель")
+                .available(true)
+                .build(), null).getId();
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+
+        Long firstId = bookingService.create(bookerId, BookingCreateDto.builder()
+                .itemId(itemId).start(start).end(start.plusDays(1)).build()).getId();
+        Long secondId = bookingService.create(bookerId, BookingCreateDto.builder()
+                .itemId(itemId).start(start.plusDays(2)).end(start.plusDays(3)).build()).getId();
+
+        ItemDashboardDto dashboard = dashboard(ownerId);
+        assertEquals(2, dashboard.getWaitingBookings());
+        assertEquals(firstId, dashboard.getNextBooking().getId());
+
+        bookingService.patch(firstId, ownerId, true);
+        bookingService.patch(secondId, ownerId, false);
+
+        dashboard = dashboard(ownerId);
+        assertEquals(1, dashboard.getApprovedBookings());
+        assertEquals(0, dashboard.getWaitingBookings());
+        assertEquals(BookingStatus.APPROVED, dashboard.getNextBooking().getStatus());
+
+        bookingService.deleteBookingById(firstId);
+
+        dashboard = dashboard(ownerId);
+        assertEquals(0, dashboard.getApprovedBookings());
+        assertEquals(secondId, dashboard.getNextBooking().getId());
+        assertEquals(secondId, itemService.findAllItemByUserId(ownerId, 0, 10).get(0).getNextBooking().getId());
+
+        bookingRepository.save(Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .start(start.minusDays(4))
+                .end(start.minusDays(3))
+                .status(BookingStatus.APPROVED)
+                .build());
+        itemService.addComment(bookerId, itemId, new CommentRequestDto("Отличная дрель"));
+
+        assertEquals(1, dashboard(ownerId).getComments());
+
+        userService.delete(bookerId);
+
+        dashboard = dashboard(ownerId);
+        assertEquals(0, dashboard.getApprovedBookings());
+        assertEquals(0, dashboard.getComments());
+        assertNull(dashboard.getLastBooking());
+        assertNull(dashboard.getNextBooking());
+    }
+
+    @Test
+    void refreshStale_whenValidUntilPassed_thenRecomputedSummaryStored() {
+        Long ownerId = userService.save(UserDto.builder().name("owner").email("owner@refresh.ru").build()).getId();
+        Long bookerId = userService.save(UserDto.builder().name("booker").email("booker@refresh.ru").build()).getId();
+        Long itemId = itemService.save(ownerId, ItemDto.builder()
+                .name("Пила")
+                .description("Простая пила")
+                .available(true)
+                .build(), null).getId();
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        Booking past = bookingRepository.save(Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .start(now.minusDays(2))
+                .end(now.minusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+        Booking future = bookingRepository.save(Booking.builder()
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .start(now.plusDays(1))
+                .end(now.plusDays(2))
+                .status(BookingStatus.APPROVED)
+                .build());
+        ItemSummary summary = itemSummaryRepository.findById(itemId).orElseThrow();
+        summary.setValidUntil(now.minusHours(1));
+        itemSummaryRepository.save(summary);
+
+        itemSummaries.refreshStale(10);
+
+        ItemSummary refreshed = itemSummaryRepository.findById(itemId).orElseThrow();
+        assertEquals(past.getId(), refreshed.getLastBookingId());
+        assertEquals(future.getId(), refreshed.getNextBookingId());
+        assertEquals(future.getStart(), refreshed.getValidUntil());
+    }
+
+    private ItemDashboardDto dashboard(Long ownerId) {
+        return itemService.getDashboard(ownerId, 0, 10).get(0);
+    }
+}
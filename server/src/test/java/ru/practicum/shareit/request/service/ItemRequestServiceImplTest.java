@@ -1,5 +1,6 @@
 package ru.practicum.shareit.request.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -7,18 +8,24 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.PrimaryReads;
 import ru.practicum.shareit.exceptions.ItemRequestNotFoundException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.dto.ItemRequestPost;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
 import ru.practicum.shareit.user.repositories.UserRepository;
+import ru.practicum.shareit.user.service.UserExistenceCache;
 import ru.practicum.shareit.util.PaginationUtil;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -28,6 +35,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
     public static final long ID_FOR_CORRECT_TEST = 1L;
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
     private ItemRequestService itemRequestService;
     @Mock
     private ItemRequestRepository itemRequestRepository;
@@ -43,7 +51,9 @@ class ItemRequestServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository, userRepository, itemService);
+        itemRequestService = new ItemRequestServiceImpl(itemRequestRepository,
+                new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry()), itemService);
         itemRequestDto = ItemRequestDto.builder()
                 .items(List.of())
                 .id(ID_FOR_CORRECT_TEST)
@@ -68,12 +78,16 @@ class ItemRequestServiceImplTest {
         when(userRepository.existsById(eq(ID_FOR_CORRECT_TEST))).thenReturn(true);
         when(itemRequestRepository.findAllByRequestorIdOrderByCreatedDesc(eq(ID_FOR_CORRECT_TEST)))
                 .thenReturn(List.of(itemRequest));
-        when(itemService.findAllItemByRequest(eq(ID_FOR_CORRECT_TEST))).thenReturn(List.of());
+        when(itemService.findAllItemByRequests(eq(List.of(ID_FOR_CORRECT_TEST))))
+                .thenReturn(Map.of(ID_FOR_CORRECT_TEST, List.of(ItemDto.builder().id(ID_FOR_CORRECT_TEST).build())));
 
 
         List<ItemRequestDto> itemRequests = itemRequestService.getItemRequests(ID_FOR_CORRECT_TEST);
 
         assertEquals(1, itemRequests.size());
+        assertEquals(1, itemRequests.get(0).getItems().size());
+        verify(itemService, times(1)).findAllItemByRequests(List.of(ID_FOR_CORRECT_TEST));
+        verify(itemService, never()).findAllItemByRequest(any());
         verify(userRepository, times(1)).existsById(ID_FOR_CORRECT_TEST);
         verify(itemRequestRepository, times(1))
                 .findAllByRequestorIdOrderByCreatedDesc(ID_FOR_CORRECT_TEST);
@@ -143,6 +157,8 @@ class ItemRequestServiceImplTest {
         List<ItemRequestDto> itemRequests = itemRequestService.getAllItemRequests(ID_FOR_CORRECT_TEST, 0, 2);
 
         assertEquals(1, itemRequests.size());
+        assertEquals(0, itemRequests.get(0).getItems().size());
+        verify(itemService, times(1)).findAllItemByRequests(List.of(ID_FOR_CORRECT_TEST));
         verify(userRepository, times(1)).existsById(ID_FOR_CORRECT_TEST);
         verify(itemRequestRepository, times(1))
                 .findAllByRequestorIdNot(ID_FOR_CORRECT_TEST, pageable);
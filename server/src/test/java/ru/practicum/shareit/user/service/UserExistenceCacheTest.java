@@ -0,0 +1,101 @@
+package ru.practicum.shareit.user.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.user.repositories.UserRepository;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCacheTest {
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
+    @Mock
+    private UserRepository userRepository;
+    private UserExistenceCache userExistenceCache;
+
+    @BeforeEach
+    void setUp() {
+        userExistenceCache = new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void exists_whenCheckedTwice_thenOneRepositoryCall() {
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        assertTrue(userExistenceCache.exists(1L));
+        assertTrue(userExistenceCache.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenLoaded_thenReadThroughPrimaryReads() {
+        PrimaryReads primaryReads = mock(PrimaryReads.class);
+        when(primaryReads.read(any())).thenAnswer(invocation -> ((Supplier<?>) invocation.getArgument(0)).get());
+        when(userRepository.existsById(1L)).thenReturn(true);
+        userExistenceCache = new UserExistenceCache(userRepository, primaryReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        assertTrue(userExistenceCache.exists(1L));
+        verify(primaryReads, times(1)).read(any());
+    }
+
+    @Test
+    void exists_whenUnknownUser_thenNegativeEntryCached() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertFalse(userExistenceCache.exists(1L));
+        assertFalse(userExistenceCache.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenUserSavedAfterNegativeEntry_thenExistsWithoutRepositoryCall() {
+        when(userRepository.existsById(1L)).thenReturn(false);
+
+        assertFalse(userExistenceCache.exists(1L));
+        userExistenceCache.markSaved(1L);
+
+        assertTrue(userExistenceCache.exists(1L));
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenUserDeletedOutsideTransaction_thenCheckedAgain() {
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+
+        assertTrue(userExistenceCache.exists(1L));
+        userExistenceCache.markDeleted(1L);
+
+        assertFalse(userExistenceCache.exists(1L));
+        verify(userRepository, times(2)).existsById(1L);
+    }
+
+    @Test
+    void exists_whenNegativeTtlPassed_thenCheckedAgain() {
+        userExistenceCache = new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ZERO, new SimpleMeterRegistry());
+        when(userRepository.existsById(1L)).thenReturn(false, true);
+
+        assertFalse(userExistenceCache.exists(1L));
+        assertTrue(userExistenceCache.exists(1L));
+    }
+
+    @Test
+    void exists_whenUserIdNull_thenFalseWithoutRepositoryCall() {
+        assertFalse(userExistenceCache.exists(null));
+        verify(userRepository, never()).existsById(any());
+    }
+}
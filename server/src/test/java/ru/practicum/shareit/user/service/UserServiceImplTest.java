@@ -1,17 +1,30 @@
 package ru.practicum.shareit.user.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.exceptions.UserUniqueEmailException;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.booking.service.ItemBookingIndex;
+import ru.practicum.shareit.comments.repositories.CommentRepository;
+import ru.practicum.shareit.datasource.PrimaryReads;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.repositories.ItemSummaryRepository;
+import ru.practicum.shareit.item.service.ItemResponseCache;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
+import ru.practicum.shareit.item.service.ItemSummaries;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapperDto;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.repositories.UserRepository;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -21,8 +34,12 @@ import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class UserServiceImplTest {
+    private final PrimaryReads passThroughReads = new PrimaryReads(mock(PlatformTransactionManager.class), List.of());
     @Mock
     private UserRepository userRepository;
+    @Mock
+    private ItemRepository itemRepository;
+    private ItemSearchIndex itemSearchIndex;
     private UserService userService;
 
     private UserDto userDto;
@@ -30,7 +47,14 @@ class UserServiceImplTest {
 
     @BeforeEach
     void setUp() {
-        userService = new UserServiceImpl(userRepository);
+        itemSearchIndex = new ItemSearchIndex();
+        userService = new UserServiceImpl(userRepository, new ItemResponseCache(100, new SimpleMeterRegistry()),
+                new UserExistenceCache(userRepository, passThroughReads, 100, Duration.ofMinutes(10),
+                Duration.ofSeconds(30), new SimpleMeterRegistry()),
+                new ItemBookingIndex(mock(BookingRepository.class), passThroughReads, 100, new SimpleMeterRegistry()),
+                new ItemSummaries(mock(ItemSummaryRepository.class), mock(BookingRepository.class),
+                        mock(CommentRepository.class)),
+                itemRepository, itemSearchIndex);
         userDto = UserDto.builder()
                 .id(1L)
                 .name("name")
@@ -149,6 +173,18 @@ class UserServiceImplTest {
         verify(userRepository, times(1)).deleteUserByIdIs(user.getId());
     }
 
+    @Test
+    void delete_whenUserOwnsItems_thenItemsRemovedFromSearchIndex() {
+        itemSearchIndex.rebuild(List.of(Item.builder().id(7L).name("Дрель").description("Простая дрель")
+                .available(true).owner(user).build()));
+        when(userRepository.existsUserByIdIs(eq(user.getId()))).thenReturn(true);
+        when(itemRepository.findIdsByOwnerId(eq(user.getId()))).thenReturn(List.of(7L));
+
+        userService.delete(user.getId());
+
+        assertEquals(0, itemSearchIndex.count("дрель"));
+    }
+
     @Test
     void delete_whenUserNotExist_thenThrowUserNotFound() {
         when(userRepository.existsUserByIdIs(eq(user.getId()))).thenReturn(false);
@@ -14,7 +14,7 @@ class PaginationUtilTest {
         Pageable paginationWithSortDesc = PaginationUtil.getPaginationWithSortDesc(null, null);
 
         assertEquals(0, paginationWithSortDesc.getPageNumber());
-        assertEquals(Integer.MAX_VALUE, paginationWithSortDesc.getPageSize());
+        assertEquals(PaginationUtil.UNBOUNDED_PAGE_SIZE, paginationWithSortDesc.getPageSize());
     }
 
     @Test
@@ -47,7 +47,7 @@ class PaginationUtilTest {
         Pageable paginationWithoutSort = PaginationUtil.getPaginationWithoutSort(null, null);
 
         assertEquals(0, paginationWithoutSort.getPageNumber());
-        assertEquals(Integer.MAX_VALUE, paginationWithoutSort.getPageSize());
+        assertEquals(PaginationUtil.UNBOUNDED_PAGE_SIZE, paginationWithoutSort.getPageSize());
     }
 
     @Test